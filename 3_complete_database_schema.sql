@@ -21,6 +21,7 @@ CREATE TABLE users (
     failed_login_attempts INTEGER NOT NULL DEFAULT 0,
     last_failed_login TIMESTAMP,
     locked_until TIMESTAMP,
+    token_version INTEGER NOT NULL DEFAULT 0,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
@@ -36,10 +37,19 @@ CREATE TABLE product (
     available BOOLEAN NOT NULL DEFAULT TRUE,
     quantity INTEGER NOT NULL DEFAULT 0,
     image_name VARCHAR(255),
-    image_type VARCHAR(100),
-    image_data BYTEA
+    image_type VARCHAR(100)
 );
 
+-- 2a. Create Product Images Table (kept apart so product rows stay small and cacheable)
+CREATE TABLE product_images (
+    product_id INTEGER PRIMARY KEY,
+    image_data BYTEA,
+    FOREIGN KEY (product_id) REFERENCES product(id) ON DELETE CASCADE
+);
+-- Existing databases: ProductImageMigration copies product.image_data into this table on startup. Once no node of
+-- the previous release is running, drop the old column (a later release may ship this as its own migration):
+-- ALTER TABLE product DROP COLUMN IF EXISTS image_data;
+
 -- 3. Create Cart Item Table
 CREATE TABLE cart_item (
     id BIGSERIAL PRIMARY KEY,
@@ -69,6 +79,7 @@ CREATE TABLE order_items (
     product_id INTEGER NOT NULL,
     quantity INTEGER NOT NULL,
     price DECIMAL(10,2),
+    discount DECIMAL(10,2) DEFAULT 0,
     FOREIGN KEY (order_id) REFERENCES orders(id) ON DELETE CASCADE,
     FOREIGN KEY (product_id) REFERENCES product(id)
 );
@@ -82,17 +93,124 @@ CREATE TABLE payments (
     payment_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     card_last_four VARCHAR(4),
     cardholder_name VARCHAR(255),
+    transaction_id VARCHAR(255),
     FOREIGN KEY (order_id) REFERENCES orders(id)
 );
 
+-- 6a. Create Outbox Table (events relayed to downstream consumers)
+CREATE TABLE outbox_events (
+    id BIGSERIAL PRIMARY KEY,
+    aggregate_type VARCHAR(255) NOT NULL,
+    aggregate_id VARCHAR(255) NOT NULL,
+    event_type VARCHAR(255) NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    published_at TIMESTAMP
+);
+
+-- 6b. Create Sales Rollup Tables (maintained incrementally at checkout)
+CREATE TABLE sales_daily_rollup (
+    sales_date DATE PRIMARY KEY,
+    order_count BIGINT NOT NULL DEFAULT 0,
+    units_sold BIGINT NOT NULL DEFAULT 0,
+    revenue DECIMAL(14,2) NOT NULL DEFAULT 0
+);
+
+CREATE TABLE product_sales_rollup (
+    product_id INTEGER PRIMARY KEY,
+    units_sold BIGINT NOT NULL DEFAULT 0,
+    order_count BIGINT NOT NULL DEFAULT 0,
+    revenue DECIMAL(14,2) NOT NULL DEFAULT 0
+);
+
+-- 6c. Create Archive Tables (finished orders moved out of the hot tables by the archival job)
+CREATE TABLE orders_archive (
+    id BIGINT PRIMARY KEY,
+    session_id VARCHAR(255),
+    total_amount DECIMAL(10,2),
+    order_date TIMESTAMP,
+    status VARCHAR(50),
+    shipping_address TEXT
+);
+
+CREATE TABLE order_items_archive (
+    id BIGINT PRIMARY KEY,
+    order_id BIGINT NOT NULL,
+    product_id INTEGER NOT NULL,
+    quantity INTEGER NOT NULL,
+    price DECIMAL(10,2),
+    discount DECIMAL(10,2) DEFAULT 0,
+    FOREIGN KEY (product_id) REFERENCES product(id)
+);
+
+CREATE TABLE payments_archive (
+    id BIGINT PRIMARY KEY,
+    order_id BIGINT,
+    amount DECIMAL(10,2),
+    payment_status VARCHAR(50),
+    payment_date TIMESTAMP,
+    card_last_four VARCHAR(4),
+    cardholder_name VARCHAR(255),
+    transaction_id VARCHAR(255)
+);
+
+-- 6d. Create Revoked Tokens Table (logged-out JWTs, kept until they expire)
+CREATE TABLE revoked_tokens (
+    jti VARCHAR(255) PRIMARY KEY,
+    expires_at TIMESTAMP NOT NULL,
+    revoked_at TIMESTAMP NOT NULL
+);
+
+-- 6e. Create Product Popularity Table (view and add-to-cart counts, flushed in batches by each node)
+CREATE TABLE product_popularity (
+    product_id INTEGER PRIMARY KEY,
+    views BIGINT NOT NULL DEFAULT 0,
+    add_to_cart BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP
+);
+
+-- 6f. Create Promotions Table (compiled into the in-memory rule index on every node)
+CREATE TABLE promotions (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    type VARCHAR(20) NOT NULL,  -- PERCENT_OFF, AMOUNT_OFF, BUY_X_GET_Y
+    scope VARCHAR(20) NOT NULL, -- PRODUCT, CATEGORY, CART
+    product_id INTEGER,
+    category VARCHAR(255),
+    percent_off DECIMAL(5,2),
+    amount_off DECIMAL(10,2),
+    buy_quantity INTEGER,
+    get_quantity INTEGER,
+    min_quantity INTEGER,
+    min_subtotal DECIMAL(10,2),
+    starts_at TIMESTAMP,
+    ends_at TIMESTAMP,
+    active BOOLEAN NOT NULL DEFAULT TRUE,
+    updated_at TIMESTAMP
+);
+
 -- 7. Create Indexes for Better Performance
 CREATE INDEX idx_users_username ON users(username);
 CREATE INDEX idx_users_email ON users(email);
+CREATE INDEX idx_users_created_at ON users(created_at);
 CREATE INDEX idx_cart_item_session_id ON cart_item(session_id);
+CREATE INDEX idx_orders_session_date ON orders(session_id, order_date);
+CREATE INDEX idx_orders_order_date ON orders(order_date);
 CREATE INDEX idx_order_items_order_id ON order_items(order_id);
+CREATE INDEX idx_order_items_product_id ON order_items(product_id);
 CREATE INDEX idx_payments_order_id ON payments(order_id);
 CREATE INDEX idx_product_category ON product(category);
 CREATE INDEX idx_product_available ON product(available);
+CREATE INDEX idx_orders_archive_session ON orders_archive(session_id, order_date);
+CREATE INDEX idx_orders_archive_order_date ON orders_archive(order_date);
+CREATE INDEX idx_order_items_archive_order ON order_items_archive(order_id);
+CREATE INDEX idx_order_items_archive_product ON order_items_archive(product_id);
+CREATE INDEX idx_payments_archive_order ON payments_archive(order_id);
+CREATE INDEX idx_revoked_tokens_revoked_at ON revoked_tokens(revoked_at);
+CREATE INDEX idx_revoked_tokens_expires_at ON revoked_tokens(expires_at);
+CREATE INDEX idx_product_sales_rollup_units ON product_sales_rollup(units_sold);
+CREATE INDEX idx_outbox_events_unpublished ON outbox_events(id) WHERE published_at IS NULL;
+CREATE INDEX idx_orders_pending ON orders(order_date) WHERE status = 'PENDING';
 
 -- 8. Insert Sample Product Data
 
@@ -0,0 +1,97 @@
+package com.e_commerce.backend.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Broadcasts "key changed" messages to the other nodes over the remote store's pub/sub channel.
+ * A node ignores its own messages; its caches were already updated by the write itself.
+ */
+public class CacheInvalidationBus {
+
+    public interface Listener {
+        void evicted(String key);
+
+        void cleared();
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    static final String CHANNEL = "cache-invalidation";
+    private static final String EVICT = "E";
+    private static final String CLEAR = "C";
+
+    private final RemoteCacheStore store;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, List<Listener>> listeners = new ConcurrentHashMap<>();
+
+    public CacheInvalidationBus(RemoteCacheStore store) {
+        this.store = store;
+        store.subscribe(CHANNEL, this::onMessage);
+    }
+
+    public void subscribe(String region, Listener listener) {
+        listeners.computeIfAbsent(region, r -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    public void publishEvict(String region, Object key) {
+        publish(region, EVICT, String.valueOf(key));
+    }
+
+    public void publishClear(String region) {
+        publish(region, CLEAR, "");
+    }
+
+    // Other nodes must not reload the old row, so the message goes out only once the write is committed
+    public void publishEvictAfterCommit(String region, Object key) {
+        afterCommit(() -> publishEvict(region, key));
+    }
+
+    public void publishClearAfterCommit(String region) {
+        afterCommit(() -> publishClear(region));
+    }
+
+    public static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void publish(String region, String op, String key) {
+        try {
+            store.publish(CHANNEL, String.join("\n", nodeId, region, op, key));
+        } catch (RuntimeException e) {
+            // Peers fall back to their near-cache TTL
+            log.warn("Could not broadcast cache invalidation for {}:{}: {}", region, key, e.getMessage());
+        }
+    }
+
+    private void onMessage(String message) {
+        String[] parts = message.split("\n", 4);
+        if (parts.length < 4 || parts[0].equals(nodeId)) {
+            return;
+        }
+        for (Listener listener : listeners.getOrDefault(parts[1], List.of())) {
+            if (CLEAR.equals(parts[2])) {
+                listener.cleared();
+            } else {
+                listener.evicted(parts[3]);
+            }
+        }
+    }
+}
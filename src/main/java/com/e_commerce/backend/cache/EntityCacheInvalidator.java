@@ -0,0 +1,41 @@
+package com.e_commerce.backend.cache;
+
+import com.e_commerce.backend.models.Product;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drops second-level cache entries on this node when another node changes the row.
+ */
+@Component
+public class EntityCacheInvalidator {
+
+    public static final String PRODUCT_REGION = "product";
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    void subscribe() {
+        cacheInvalidationBus.subscribe(PRODUCT_REGION, new CacheInvalidationBus.Listener() {
+            @Override
+            public void evicted(String key) {
+                entityManagerFactory.getCache().evict(Product.class, Integer.valueOf(key));
+            }
+
+            @Override
+            public void cleared() {
+                entityManagerFactory.getCache().evict(Product.class);
+            }
+        });
+    }
+
+    public void productChanged(int productId) {
+        cacheInvalidationBus.publishEvictAfterCommit(PRODUCT_REGION, productId);
+    }
+}
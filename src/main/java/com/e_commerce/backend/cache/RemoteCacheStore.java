@@ -0,0 +1,25 @@
+package com.e_commerce.backend.cache;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * Shared cache tier seen by every node, plus the channel used to broadcast invalidations.
+ */
+public interface RemoteCacheStore {
+
+    byte[] get(String key);
+
+    void put(String key, byte[] value, Duration ttl);
+
+    void delete(String key);
+
+    void deleteByPrefix(String prefix);
+
+    // Atomic across nodes; a missing counter is first created at initialValue. Counters never expire
+    long increment(String key, long initialValue);
+
+    void publish(String channel, String message);
+
+    void subscribe(String channel, Consumer<String> listener);
+}
@@ -0,0 +1,175 @@
+package com.e_commerce.backend.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+
+/**
+ * Spring cache backed by a per-node Caffeine near cache in front of the shared remote store.
+ * Values are stored remotely as "class name \n JSON"; only this application's own types are read back.
+ * If the remote tier is unavailable the cache degrades to near-cache only.
+ */
+public class TwoTierCache extends AbstractValueAdaptingCache implements CacheInvalidationBus.Listener {
+
+    private static final Logger log = LoggerFactory.getLogger(TwoTierCache.class);
+    private static final String TRUSTED_PACKAGE = "com.e_commerce.backend.";
+
+    private final String name;
+    private final String keyPrefix;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> nearCache;
+    private final RemoteCacheStore remote;
+    private final Duration remoteTtl;
+    private final CacheInvalidationBus invalidationBus;
+    private final ObjectMapper objectMapper;
+
+    public TwoTierCache(String name, com.github.benmanes.caffeine.cache.Cache<String, Object> nearCache,
+                        RemoteCacheStore remote, Duration remoteTtl,
+                        CacheInvalidationBus invalidationBus, ObjectMapper objectMapper) {
+        super(false);
+        this.name = name;
+        this.keyPrefix = "cache:" + name + ":";
+        this.nearCache = nearCache;
+        this.remote = remote;
+        this.remoteTtl = remoteTtl;
+        this.invalidationBus = invalidationBus;
+        this.objectMapper = objectMapper;
+        invalidationBus.subscribe(name, this);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return nearCache;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        String nearKey = String.valueOf(key);
+        Object value = nearCache.getIfPresent(nearKey);
+        if (value != null) {
+            return value;
+        }
+        value = readRemote(key);
+        if (value != null) {
+            nearCache.put(nearKey, value);
+        }
+        return value;
+    }
+
+    // Concurrent misses for the same key on this node share one load
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object value = lookup(key);
+        if (value != null) {
+            return (T) value;
+        }
+        return (T) nearCache.get(String.valueOf(key), k -> {
+            try {
+                T loaded = valueLoader.call();
+                if (loaded != null) {
+                    writeRemote(key, loaded);
+                }
+                return loaded;
+            } catch (Exception e) {
+                throw new ValueRetrievalException(key, valueLoader, e);
+            }
+        });
+    }
+
+    // A fill is not a change, so nothing is broadcast; writers evict instead
+    @Override
+    public void put(Object key, Object value) {
+        if (value == null) {
+            evict(key);
+            return;
+        }
+        nearCache.put(String.valueOf(key), value);
+        writeRemote(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        nearCache.invalidate(String.valueOf(key));
+        try {
+            remote.delete(keyPrefix + key);
+        } catch (RuntimeException e) {
+            log.warn("Remote cache evict failed for {}:{}: {}", name, key, e.getMessage());
+        }
+        invalidationBus.publishEvict(name, key);
+    }
+
+    @Override
+    public void clear() {
+        nearCache.invalidateAll();
+        try {
+            remote.deleteByPrefix(keyPrefix);
+        } catch (RuntimeException e) {
+            log.warn("Remote cache clear failed for {}: {}", name, e.getMessage());
+        }
+        invalidationBus.publishClear(name);
+    }
+
+    // Invalidations from other nodes only touch the near tier; the remote tier was already updated
+    @Override
+    public void evicted(String key) {
+        nearCache.invalidate(key);
+    }
+
+    @Override
+    public void cleared() {
+        nearCache.invalidateAll();
+    }
+
+    private Object readRemote(Object key) {
+        try {
+            return deserialize(remote.get(keyPrefix + key));
+        } catch (RuntimeException | IOException | ClassNotFoundException e) {
+            log.warn("Remote cache read failed for {}:{}: {}", name, key, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeRemote(Object key, Object value) {
+        try {
+            remote.put(keyPrefix + key, serialize(value), remoteTtl);
+        } catch (RuntimeException | IOException e) {
+            log.warn("Remote cache write failed for {}:{}: {}", name, key, e.getMessage());
+        }
+    }
+
+    private byte[] serialize(Object value) throws IOException {
+        byte[] type = (value.getClass().getName() + "\n").getBytes(StandardCharsets.UTF_8);
+        byte[] json = objectMapper.writeValueAsBytes(value);
+        byte[] bytes = Arrays.copyOf(type, type.length + json.length);
+        System.arraycopy(json, 0, bytes, type.length, json.length);
+        return bytes;
+    }
+
+    private Object deserialize(byte[] bytes) throws IOException, ClassNotFoundException {
+        if (bytes == null) {
+            return null;
+        }
+        int newline = 0;
+        while (newline < bytes.length && bytes[newline] != '\n') {
+            newline++;
+        }
+        String typeName = new String(bytes, 0, newline, StandardCharsets.UTF_8);
+        if (!typeName.startsWith(TRUSTED_PACKAGE)) {
+            throw new ClassNotFoundException("Refusing to read cached type " + typeName);
+        }
+        Class<?> type = Class.forName(typeName, false, getClass().getClassLoader());
+        return objectMapper.readValue(bytes, newline + 1, bytes.length - newline - 1, type);
+    }
+}
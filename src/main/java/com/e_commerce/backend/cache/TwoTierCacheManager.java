@@ -0,0 +1,56 @@
+package com.e_commerce.backend.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.Cache;
+import org.springframework.cache.transaction.AbstractTransactionSupportingCacheManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Creates a {@link TwoTierCache} per cache name. Puts and evicts made inside a transaction are applied
+ * after commit, so other nodes never reload a row that is about to change.
+ */
+public class TwoTierCacheManager extends AbstractTransactionSupportingCacheManager {
+
+    private final List<String> cacheNames;
+    private final RemoteCacheStore remote;
+    private final CacheInvalidationBus invalidationBus;
+    private final ObjectMapper objectMapper;
+    private final long nearMaxEntries;
+    private final Duration nearTtl;
+    private final Duration remoteTtl;
+
+    public TwoTierCacheManager(List<String> cacheNames, RemoteCacheStore remote, CacheInvalidationBus invalidationBus,
+                               ObjectMapper objectMapper, long nearMaxEntries, Duration nearTtl, Duration remoteTtl) {
+        this.cacheNames = cacheNames;
+        this.remote = remote;
+        this.invalidationBus = invalidationBus;
+        this.objectMapper = objectMapper;
+        this.nearMaxEntries = nearMaxEntries;
+        this.nearTtl = nearTtl;
+        this.remoteTtl = remoteTtl;
+        setTransactionAware(true);
+    }
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        return cacheNames.stream().map(this::createCache).toList();
+    }
+
+    @Override
+    protected Cache getMissingCache(String name) {
+        return createCache(name);
+    }
+
+    private TwoTierCache createCache(String name) {
+        // The near TTL bounds staleness should an invalidation message be lost
+        com.github.benmanes.caffeine.cache.Cache<String, Object> nearCache = Caffeine.newBuilder()
+                .maximumSize(nearMaxEntries)
+                .expireAfterWrite(nearTtl)
+                .build();
+        return new TwoTierCache(name, nearCache, remote, remoteTtl, invalidationBus, objectMapper);
+    }
+}
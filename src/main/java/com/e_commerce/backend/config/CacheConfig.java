@@ -0,0 +1,67 @@
+package com.e_commerce.backend.config;
+
+import com.e_commerce.backend.cache.CacheInvalidationBus;
+import com.e_commerce.backend.cache.InMemoryRemoteCacheStore;
+import com.e_commerce.backend.cache.RedisRemoteCacheStore;
+import com.e_commerce.backend.cache.RemoteCacheStore;
+import com.e_commerce.backend.cache.TwoTierCacheManager;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+public class CacheConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "cache.backend", havingValue = "memory", matchIfMissing = true)
+    public RemoteCacheStore inMemoryRemoteCacheStore() {
+        return new InMemoryRemoteCacheStore();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "cache.backend", havingValue = "redis")
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "cache.backend", havingValue = "redis")
+    public RemoteCacheStore redisRemoteCacheStore(RedisConnectionFactory connectionFactory,
+                                                  RedisMessageListenerContainer cacheInvalidationListenerContainer) {
+        RedisTemplate<String, byte[]> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(RedisSerializer.string());
+        template.setValueSerializer(RedisSerializer.byteArray());
+        template.afterPropertiesSet();
+        return new RedisRemoteCacheStore(template, cacheInvalidationListenerContainer);
+    }
+
+    @Bean
+    public CacheInvalidationBus cacheInvalidationBus(RemoteCacheStore remoteCacheStore) {
+        return new CacheInvalidationBus(remoteCacheStore);
+    }
+
+    @Bean
+    public CacheManager cacheManager(RemoteCacheStore remoteCacheStore,
+                                     CacheInvalidationBus cacheInvalidationBus,
+                                     ObjectMapper objectMapper,
+                                     @Value("${cache.names:cart}") List<String> cacheNames,
+                                     @Value("${cache.near.max-entries:10000}") long nearMaxEntries,
+                                     @Value("${cache.near.ttl-seconds:30}") long nearTtlSeconds,
+                                     @Value("${cache.remote.ttl-seconds:1800}") long remoteTtlSeconds) {
+        return new TwoTierCacheManager(cacheNames, remoteCacheStore, cacheInvalidationBus, objectMapper,
+                nearMaxEntries, Duration.ofSeconds(nearTtlSeconds), Duration.ofSeconds(remoteTtlSeconds));
+    }
+}
@@ -0,0 +1,29 @@
+package com.e_commerce.backend.config;
+
+import com.e_commerce.backend.services.FileOutboxSink;
+import com.e_commerce.backend.services.InMemoryOutboxSink;
+import com.e_commerce.backend.services.OutboxSink;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+public class OutboxConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "outbox.sink.type", havingValue = "memory", matchIfMissing = true)
+    public OutboxSink inMemoryOutboxSink(@Value("${outbox.sink.memory.capacity:10000}") int capacity) {
+        return new InMemoryOutboxSink(capacity);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "outbox.sink.type", havingValue = "file")
+    public OutboxSink fileOutboxSink(@Value("${outbox.sink.file.path:outbox-events.jsonl}") String path,
+                                     ObjectMapper objectMapper) {
+        return new FileOutboxSink(Path.of(path), objectMapper);
+    }
+}
@@ -0,0 +1,66 @@
+package com.e_commerce.backend.config;
+
+import com.e_commerce.backend.services.PaymentGateway;
+import com.e_commerce.backend.services.ResilientPaymentGateway;
+import com.e_commerce.backend.services.SimulatedPaymentGateway;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class PaymentGatewayConfig {
+
+    // Bulkhead: dedicated threads for gateway calls plus a short waiting line
+    @Value("${payment.gateway.concurrency:16}")
+    private int concurrency;
+
+    @Value("${payment.gateway.queue-capacity:32}")
+    private int queueCapacity;
+
+    @Value("${payment.gateway.timeout-ms:3000}")
+    private long timeoutMs;
+
+    @Value("${payment.gateway.retry.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${payment.gateway.retry.backoff-ms:100}")
+    private long retryBackoffMs;
+
+    @Value("${payment.gateway.retry.max-backoff-ms:1000}")
+    private long retryMaxBackoffMs;
+
+    @Value("${payment.gateway.circuit.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${payment.gateway.circuit.open-ms:10000}")
+    private long openDurationMs;
+
+    // Simulator settings, used until a real provider is wired in
+    @Value("${payment.gateway.simulator.latency-ms:20}")
+    private long simulatorLatencyMs;
+
+    @Value("${payment.gateway.simulator.latency-jitter-ms:30}")
+    private long simulatorLatencyJitterMs;
+
+    @Value("${payment.gateway.simulator.failure-rate:0.0}")
+    private double simulatorFailureRate;
+
+    @Value("${payment.gateway.simulator.hang-rate:0.0}")
+    private double simulatorHangRate;
+
+    @Value("${payment.gateway.simulator.hang-ms:10000}")
+    private long simulatorHangMs;
+
+    @Value("${payment.gateway.simulator.decline-rate:0.0}")
+    private double simulatorDeclineRate;
+
+    @Bean(destroyMethod = "shutdown")
+    public ResilientPaymentGateway paymentGateway() {
+        PaymentGateway provider = new SimulatedPaymentGateway(
+                simulatorLatencyMs, simulatorLatencyJitterMs, simulatorFailureRate,
+                simulatorHangRate, simulatorHangMs, simulatorDeclineRate);
+
+        return new ResilientPaymentGateway(provider, concurrency, queueCapacity, timeoutMs,
+                maxAttempts, retryBackoffMs, retryMaxBackoffMs, failureThreshold, openDurationMs);
+    }
+}
@@ -0,0 +1,87 @@
+package com.e_commerce.backend.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Copies images from the old product.image_data column into product_images on startup. The column itself is left
+ * in place, because nodes of the previous release still read and write it during a rolling deploy; dropping it is
+ * a separate step once every node runs this release (see the schema script). Copies skip products that already
+ * have a row, so images uploaded since the deploy win and a restart only reads images not copied yet; the column
+ * disappearing mid-copy just ends the copy.
+ */
+@Component
+public class ProductImageMigration implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductImageMigration.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Images are up to product.image.max-bytes each, so batches stay small
+    @Value("${product.image.migration-batch-size:50}")
+    private int batchSize;
+
+    @Override
+    public void run(String... args) {
+        Boolean legacyColumn = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM information_schema.columns " +
+                        "WHERE table_schema = current_schema() AND table_name = 'product' AND column_name = 'image_data')",
+                Boolean.class);
+        if (!Boolean.TRUE.equals(legacyColumn)) {
+            return;
+        }
+
+        int copied;
+        try {
+            copied = copyImages();
+        } catch (BadSqlGrammarException e) {
+            // Dropped since the check above: there is nothing left to copy
+            log.info("product.image_data is gone, skipping the image copy: {}", e.getMostSpecificCause().getMessage());
+            return;
+        }
+        if (copied > 0) {
+            log.info("Copied {} product images from product.image_data into product_images", copied);
+        }
+    }
+
+    private int copyImages() {
+        int copied = 0;
+        int lastId = 0;
+        while (true) {
+            List<Integer> ids = jdbcTemplate.queryForList(
+                    "SELECT p.id FROM product p WHERE p.image_data IS NOT NULL AND p.id > ? " +
+                            "AND NOT EXISTS (SELECT 1 FROM product_images i WHERE i.product_id = p.id) " +
+                            "ORDER BY p.id LIMIT ?",
+                    Integer.class, lastId, batchSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+            Integer inserted = transactionTemplate.execute(status -> jdbcTemplate.update(
+                    "INSERT INTO product_images (product_id, image_data) " +
+                            "SELECT id, image_data FROM product WHERE id IN (" + placeholders(ids.size()) + ") " +
+                            "ON CONFLICT (product_id) DO NOTHING",
+                    ids.toArray()));
+            copied += inserted != null ? inserted : 0;
+            lastId = ids.get(ids.size() - 1);
+        }
+        return copied;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
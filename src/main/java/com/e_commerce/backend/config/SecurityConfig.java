@@ -3,12 +3,14 @@ package com.e_commerce.backend.config;
 import com.e_commerce.backend.security.JwtAuthenticationFilter;
 import com.e_commerce.backend.services.UserDetailsServiceImpl;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
@@ -33,9 +35,13 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    // Stored hashes with a different cost are re-hashed on the next successful login
+    @Value("${security.bcrypt.strength:10}")
+    private int bcryptStrength;
+
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
 
     @Bean
@@ -61,8 +67,12 @@ public class SecurityConfig {
                 .requestMatchers("/api/auth/**").permitAll()
                     .requestMatchers("/api/product/search").permitAll()  // Add this line
                 .requestMatchers("/api/product").permitAll()
+                .requestMatchers("/api/product/stream").permitAll()
+                .requestMatchers("/api/product/suggest").permitAll()
+                .requestMatchers(HttpMethod.POST, "/api/product/batch").permitAll()
                 .requestMatchers("/api/product/{id}").permitAll()
                 .requestMatchers("/api/product/{id}/image").permitAll()
+                .requestMatchers("/api/product/{id}/related").permitAll()
 
                 // Cart endpoints (allow for guest users)
                 .requestMatchers("/api/cart/**").permitAll()
@@ -70,8 +80,12 @@ public class SecurityConfig {
                 // Payment endpoints (allow for guest users with session)
                 .requestMatchers("/api/payment/**").permitAll()
 
+                // Health check used by the platform load balancer
+                .requestMatchers("/actuator/health").permitAll()
+
                 // Admin only endpoints
                 .requestMatchers("/api/product/**").hasRole("ADMIN")
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
 
                 // All other requests require authentication
                 .anyRequest().authenticated()
@@ -90,7 +104,7 @@ public class SecurityConfig {
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
         configuration.setAllowCredentials(true);
-        configuration.setExposedHeaders(Arrays.asList("X-Cart-Session"));
+        configuration.setExposedHeaders(Arrays.asList("X-Cart-Session", "ETag"));
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
@@ -1,7 +1,13 @@
 package com.e_commerce.backend.controllers;
 
 import com.e_commerce.backend.models.Product;
+import com.e_commerce.backend.models.Promotion;
+import com.e_commerce.backend.dto.UserDTO;
+import com.e_commerce.backend.models.Role;
+import com.e_commerce.backend.services.AuthService;
+import com.e_commerce.backend.services.OrderArchivalService;
 import com.e_commerce.backend.services.ProductService;
+import com.e_commerce.backend.services.PromotionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -20,6 +26,15 @@ public class AdminController {
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private OrderArchivalService orderArchivalService;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private PromotionService promotionService;
+
     @PostMapping("/products")
     public ResponseEntity<?> createProduct(
             @RequestPart("product") Product product,
@@ -36,7 +51,7 @@ public class AdminController {
     public ResponseEntity<?> updateProduct(
             @PathVariable int id,
             @RequestPart("product") Product product,
-            @RequestPart("imageFile") MultipartFile imageFile) {
+            @RequestPart(value = "imageFile", required = false) MultipartFile imageFile) {
         try {
             Product updatedProduct = productService.updateProductbyID(id, product, imageFile);
             if (updatedProduct == null) {
@@ -63,4 +78,46 @@ public class AdminController {
         List<Product> products = productService.getAllofProducts();
         return ResponseEntity.ok(products);
     }
+
+    @PostMapping("/orders/archive")
+    public ResponseEntity<String> archiveOrders() {
+        int archived = orderArchivalService.archiveOldOrders();
+        return ResponseEntity.ok("Archived " + archived + " orders");
+    }
+
+    @PutMapping("/users/{id}/role")
+    public ResponseEntity<UserDTO> changeUserRole(@PathVariable Long id, @RequestParam Role role) {
+        return ResponseEntity.ok(authService.changeRole(id, role));
+    }
+
+    @GetMapping("/promotions")
+    public ResponseEntity<List<Promotion>> getPromotions() {
+        return ResponseEntity.ok(promotionService.getAllPromotions());
+    }
+
+    @PostMapping("/promotions")
+    public ResponseEntity<?> createPromotion(@RequestBody Promotion promotion) {
+        try {
+            return ResponseEntity.ok(promotionService.createPromotion(promotion));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @PutMapping("/promotions/{id}")
+    public ResponseEntity<?> updatePromotion(@PathVariable Long id, @RequestBody Promotion promotion) {
+        try {
+            return ResponseEntity.ok(promotionService.updatePromotion(id, promotion));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @DeleteMapping("/promotions/{id}")
+    public ResponseEntity<String> deletePromotion(@PathVariable Long id) {
+        promotionService.deletePromotion(id);
+        return ResponseEntity.ok("Promotion deleted successfully");
+    }
 }
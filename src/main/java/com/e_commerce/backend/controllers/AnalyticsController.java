@@ -0,0 +1,50 @@
+package com.e_commerce.backend.controllers;
+
+import com.e_commerce.backend.dto.DailySalesDTO;
+import com.e_commerce.backend.dto.ProductSalesDTO;
+import com.e_commerce.backend.services.SalesAnalyticsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/analytics")
+@CrossOrigin(origins = "http://localhost:5173", allowCredentials = "true")
+@PreAuthorize("hasRole('ADMIN')")
+public class AnalyticsController {
+
+    @Autowired
+    private SalesAnalyticsService salesAnalyticsService;
+
+    @GetMapping("/revenue/daily")
+    public ResponseEntity<List<DailySalesDTO>> getDailyRevenue(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        return ResponseEntity.ok(salesAnalyticsService.getDailyRevenue(start, end));
+    }
+
+    @GetMapping("/products")
+    public ResponseEntity<List<ProductSalesDTO>> getProductSales(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(salesAnalyticsService.getProductSales(Math.max(page, 0), Math.max(1, Math.min(size, 500))));
+    }
+
+    @GetMapping("/products/top")
+    public ResponseEntity<List<ProductSalesDTO>> getTopProducts(@RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(salesAnalyticsService.getTopProducts(limit));
+    }
+
+    @PostMapping("/rebuild")
+    public ResponseEntity<String> rebuild() {
+        salesAnalyticsService.rebuild();
+        return ResponseEntity.ok("Sales rollups rebuilt");
+    }
+}
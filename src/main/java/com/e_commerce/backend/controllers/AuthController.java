@@ -1,11 +1,18 @@
 package com.e_commerce.backend.controllers;
 
 import com.e_commerce.backend.dto.AuthResponse;
+import com.e_commerce.backend.dto.AvailabilityResponse;
 import com.e_commerce.backend.dto.LoginRequest;
 import com.e_commerce.backend.dto.RegisterRequest;
+import com.e_commerce.backend.exception.ServiceBusyException;
+import com.e_commerce.backend.exception.TooManyAttemptsException;
+import com.e_commerce.backend.security.VerifiedToken;
 import com.e_commerce.backend.services.AuthService;
+import com.e_commerce.backend.services.UserAvailabilityService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -17,29 +24,47 @@ public class AuthController {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private UserAvailabilityService userAvailabilityService;
+
+    @GetMapping("/available")
+    public ResponseEntity<AvailabilityResponse> checkAvailability(
+            @RequestParam(required = false) String username,
+            @RequestParam(required = false) String email) {
+        return ResponseEntity.ok(userAvailabilityService.check(username, email));
+    }
+
     @PostMapping("/register")
     public ResponseEntity<AuthResponse> register(@Valid @RequestBody RegisterRequest registerRequest) {
         try {
             AuthResponse response = authService.register(registerRequest);
             return ResponseEntity.ok(response);
+        } catch (ServiceBusyException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(new AuthResponse(e.getMessage()));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(new AuthResponse(e.getMessage()));
         }
     }
 
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest loginRequest) {
+    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest loginRequest, HttpServletRequest request) {
         try {
-            AuthResponse response = authService.login(loginRequest);
+            // The client address resolved from X-Forwarded-For (server.forward-headers-strategy)
+            AuthResponse response = authService.login(loginRequest, request.getRemoteAddr());
             return ResponseEntity.ok(response);
+        } catch (TooManyAttemptsException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(new AuthResponse(e.getMessage()));
+        } catch (ServiceBusyException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(new AuthResponse(e.getMessage()));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(new AuthResponse(e.getMessage()));
         }
     }
 
     @PostMapping("/logout")
-    public ResponseEntity<AuthResponse> logout() {
-        AuthResponse response = authService.logout();
+    public ResponseEntity<AuthResponse> logout(
+            @RequestAttribute(name = VerifiedToken.REQUEST_ATTRIBUTE, required = false) VerifiedToken token) {
+        AuthResponse response = authService.logout(token);
         return ResponseEntity.ok(response);
     }
 }
@@ -3,8 +3,11 @@ package com.e_commerce.backend.controllers;
 import com.e_commerce.backend.dto.OrderDTO;
 import com.e_commerce.backend.dto.PaymentRequest;
 import com.e_commerce.backend.dto.PaymentResponse;
+import com.e_commerce.backend.exception.CheckoutConflictException;
+import com.e_commerce.backend.exception.PaymentGatewayException;
 import com.e_commerce.backend.services.PaymentService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -24,25 +27,19 @@ public class PaymentController {
             // Validate input
             if (request.getSessionId() == null || request.getSessionId().isEmpty()) {
                 return ResponseEntity.badRequest().body(
-                        new PaymentResponse(false, "Session ID is required", null, null)
-                );
-            }
-
-            if (request.getAmount() == null || request.getAmount().doubleValue() <= 0) {
-                return ResponseEntity.badRequest().body(
-                        new PaymentResponse(false, "Invalid payment amount", null, null)
+                        new PaymentResponse(false, "Session ID is required", null, null, null)
                 );
             }
 
             if (request.getCardName() == null || request.getCardName().trim().isEmpty()) {
                 return ResponseEntity.badRequest().body(
-                        new PaymentResponse(false, "Cardholder name is required", null, null)
+                        new PaymentResponse(false, "Cardholder name is required", null, null, null)
                 );
             }
 
             if (request.getCardNumber() == null || request.getCardNumber().replaceAll("\\s", "").length() < 13) {
                 return ResponseEntity.badRequest().body(
-                        new PaymentResponse(false, "Invalid card number", null, null)
+                        new PaymentResponse(false, "Invalid card number", null, null, null)
                 );
             }
 
@@ -53,18 +50,27 @@ public class PaymentController {
                     true,
                     "Payment processed successfully",
                     order.getId(),
-                    order.getPayment().getId()
+                    order.getPayment().getId(),
+                    order.getTotalAmount()
             );
 
             return ResponseEntity.ok(response);
 
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(
-                    new PaymentResponse(false, e.getMessage(), null, null)
+                    new PaymentResponse(false, e.getMessage(), null, null, null)
+            );
+        } catch (CheckoutConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(
+                    new PaymentResponse(false, e.getMessage(), e.getOrderId(), null, e.getCurrentTotal())
+            );
+        } catch (PaymentGatewayException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(
+                    new PaymentResponse(false, e.getMessage(), null, null, null)
             );
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body(
-                    new PaymentResponse(false, "Payment processing failed: " + e.getMessage(), null, null)
+                    new PaymentResponse(false, "Payment processing failed: " + e.getMessage(), null, null, null)
             );
         }
     }
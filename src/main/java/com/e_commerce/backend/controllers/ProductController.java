@@ -1,15 +1,27 @@
 package com.e_commerce.backend.controllers;
 
 
+import com.e_commerce.backend.dto.ProductBatchRequest;
+import com.e_commerce.backend.dto.ProductBatchResponse;
+import com.e_commerce.backend.dto.ProductSummaryDTO;
+import com.e_commerce.backend.dto.SuggestionDTO;
 import com.e_commerce.backend.models.Product;
+import com.e_commerce.backend.services.CatalogVersion;
+import com.e_commerce.backend.services.PopularityCounters;
 import com.e_commerce.backend.services.ProductService;
+import com.e_commerce.backend.services.ProductSuggestService;
+import com.e_commerce.backend.services.RelatedProductsService;
+import com.e_commerce.backend.services.ProductUpdateStream;
+import com.e_commerce.backend.web.EncodedJson;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.IOException;
 import java.util.List;
@@ -22,17 +34,101 @@ public class ProductController {
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private ProductUpdateStream productUpdateStream;
+
+    @Autowired
+    private ProductSuggestService productSuggestService;
+
+    @Autowired
+    private RelatedProductsService relatedProductsService;
+
+    @Autowired
+    private PopularityCounters popularityCounters;
+
+    private static final String SORT_POPULAR = "popular";
+
     @GetMapping("/product")
-    public ResponseEntity<List<Product>> getAllProudct(){
-        return new ResponseEntity<>(productService.getAllofProducts(), HttpStatus.OK);
+    public ResponseEntity<byte[]> getAllProudct(
+            @RequestParam(required = false) String sort,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding){
+        if (SORT_POPULAR.equalsIgnoreCase(sort)) {
+            return getPopularProducts(ifNoneMatch, acceptEncoding);
+        }
+        // Unchanged catalog: answer from the version counter, without querying or serialising
+        String currentTag = catalogVersion.etag(catalogVersion.current());
+        String matchedTag = CatalogVersion.match(ifNoneMatch, currentTag);
+        if (matchedTag != null) {
+            return notModified(matchedTag);
+        }
+        return versioned(productService.getCatalogListing(), acceptEncoding);
+    }
+
+    @GetMapping("product/suggest")
+    public ResponseEntity<List<SuggestionDTO>> suggest(@RequestParam String prefix,
+            @RequestParam(defaultValue = "" + ProductSuggestService.MAX_SUGGESTIONS) int limit) {
+        return ResponseEntity.ok(productSuggestService.suggest(prefix, limit));
+    }
+
+    // "Frequently bought together", answered from the in-memory co-occurrence index
+    @GetMapping("product/{id}/related")
+    public ResponseEntity<List<ProductSummaryDTO>> getRelatedProducts(@PathVariable int id,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(relatedProductsService.getRelated(id, limit));
+    }
+
+    // One round trip for the cart/order pages instead of one GET /product/{id} per line
+    @GetMapping(value = "/product", params = "ids")
+    public ResponseEntity<ProductBatchResponse> getProductsByIds(@RequestParam List<Integer> ids) {
+        return productBatch(ids);
+    }
+
+    @PostMapping("/product/batch")
+    public ResponseEntity<ProductBatchResponse> getProductsByIdsBatch(@RequestBody ProductBatchRequest request) {
+        return productBatch(request.getIds() != null ? request.getIds() : List.of());
+    }
+
+    private ResponseEntity<ProductBatchResponse> productBatch(List<Integer> ids) {
+        try {
+            return ResponseEntity.ok(productService.getProductSummaries(ids));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Live stock/price updates for the given products; replaces polling GET /product/{id}
+    @GetMapping(value = "product/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamProductUpdates(@RequestParam List<Integer> ids) throws IOException {
+        try {
+            SseEmitter emitter = productUpdateStream.subscribe(ids);
+            if (emitter == null) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "5")
+                        .build();
+            }
+            return ResponseEntity.ok(emitter);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("product/{id}")
-    public ResponseEntity<Product> getProductById(@PathVariable int id) {
+    public ResponseEntity<?> getProductById(@PathVariable int id,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        EncodedJson encoded = productService.getEncodedProduct(id);
+        if (encoded != null) {
+            popularityCounters.recordView(id);
+            return encoded.write(ResponseEntity.ok(), acceptEncoding);
+        }
         try {
             Product product = productService.getProductById(id);
 
             if (product != null) {
+                popularityCounters.recordView(id);
                 return ResponseEntity.ok(product); // 200 OK with product
             } else {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).build(); // 404 Not Found
@@ -80,14 +176,15 @@ public class ProductController {
     @GetMapping("/product/{id}/image")
     public ResponseEntity<byte[]> getProductImage(@PathVariable int id) {
         Product product = productService.getProductById(id);
-        if (product != null && product.getImageData() != null) {
+        byte[] imageData = product != null ? productService.getProductImageData(id) : null;
+        if (imageData != null) {
             return ResponseEntity.ok()
                     .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + product.getImageName() + "\"")
                     .header(HttpHeaders.CACHE_CONTROL, "no-cache, no-store, must-revalidate")
                     .header(HttpHeaders.PRAGMA, "no-cache")
                     .header(HttpHeaders.EXPIRES, "0")
                     .contentType(MediaType.parseMediaType(product.getImageType()))
-                    .body(product.getImageData());
+                    .body(imageData);
         }
         return ResponseEntity.notFound().build();
     }
@@ -108,10 +205,41 @@ public class ProductController {
     }
 
     @GetMapping("product/search")
-    public ResponseEntity<List<Product>> searchProducts(@RequestParam String keyword){
-        List<Product> products = productService.searchProducts(keyword); 
-        return new ResponseEntity<>(products, HttpStatus.OK);
+    public ResponseEntity<byte[]> searchProducts(@RequestParam String keyword,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding){
+        String currentTag = catalogVersion.etag(catalogVersion.current());
+        String matchedTag = CatalogVersion.match(ifNoneMatch, currentTag);
+        if (matchedTag != null) {
+            return notModified(matchedTag);
+        }
+        return versioned(productService.getCatalogSearch(keyword), acceptEncoding);
+    }
+
+    // Ordered by in-memory popularity; the order and its ETag only move when the catalog or a counter flush does
+    private ResponseEntity<byte[]> getPopularProducts(String ifNoneMatch, String acceptEncoding) {
+        String currentTag = catalogVersion.rankedEtag(SORT_POPULAR, catalogVersion.current(), popularityCounters.getGeneration());
+        String matchedTag = CatalogVersion.match(ifNoneMatch, currentTag);
+        if (matchedTag != null) {
+            return notModified(matchedTag);
+        }
+        ProductService.PopularRead popular = productService.getPopularListing();
+        return popular.read().body().write(ResponseEntity.ok().cacheControl(CacheControl.noCache()),
+                catalogVersion.rankedEtag(SORT_POPULAR, popular.read().version(), popular.generation()), acceptEncoding);
+    }
+
+    // The tag is the version the result was loaded at, so a stale cached result never claims the current version
+    // Writes the pre-encoded snapshot bytes; no Jackson on this path
+    private ResponseEntity<byte[]> versioned(ProductService.CatalogRead read, String acceptEncoding) {
+        return read.body().write(ResponseEntity.ok().cacheControl(CacheControl.noCache()),
+                catalogVersion.etag(read.version()), acceptEncoding);
+    }
 
+    private ResponseEntity<byte[]> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .build();
     }
 
 
@@ -1,10 +1,10 @@
 package com.e_commerce.backend.dto;
 
+import com.e_commerce.backend.money.Money;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.util.List;
 
 @Data
@@ -12,7 +12,10 @@ import java.util.List;
 @NoArgsConstructor
 public class CartDTO {
     private List<CartItemDTO> items;
-    private BigDecimal totalAmount;
+    private Money subtotalAmount;
+    private Money discountAmount;
+    private String cartPromotion; // cart-wide promotion applied, if any
+    private Money totalAmount; // after all discounts
     private int totalItems;
 }
 
@@ -1,5 +1,6 @@
 package com.e_commerce.backend.dto;
 
+import com.e_commerce.backend.money.Money;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -11,5 +12,8 @@ public class CartItemDTO {
     private Long id;
     private ProductSummaryDTO product;
     private int quantity;
+    private Money lineTotal; // before discount
+    private Money discount;
+    private String promotion;
 }
 
@@ -0,0 +1,16 @@
+package com.e_commerce.backend.dto;
+
+import com.e_commerce.backend.money.Money;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class GatewayChargeRequest {
+    private String idempotencyKey; // Same key on every retry so the provider charges at most once
+    private Money amount;
+    private String cardNumber;
+    private String cardholderName;
+}
@@ -0,0 +1,22 @@
+package com.e_commerce.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class GatewayChargeResult {
+    private boolean approved;
+    private String transactionId;
+    private String declineReason;
+
+    public static GatewayChargeResult approved(String transactionId) {
+        return new GatewayChargeResult(true, transactionId, null);
+    }
+
+    public static GatewayChargeResult declined(String reason) {
+        return new GatewayChargeResult(false, null, reason);
+    }
+}
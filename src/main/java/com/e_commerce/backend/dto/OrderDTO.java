@@ -1,10 +1,10 @@
 package com.e_commerce.backend.dto;
 
+import com.e_commerce.backend.money.Money;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -14,7 +14,7 @@ import java.util.List;
 public class OrderDTO {
     private Long id;
     private String sessionId;
-    private BigDecimal totalAmount;
+    private Money totalAmount;
     private LocalDateTime orderDate;
     private String status;
     private String shippingAddress;
@@ -28,7 +28,8 @@ public class OrderDTO {
         private Long id;
         private ProductSummaryDTO product;
         private Integer quantity;
-        private BigDecimal price;
+        private Money price;
+        private Money discount;
     }
 
     @Data
@@ -36,7 +37,7 @@ public class OrderDTO {
     @NoArgsConstructor
     public static class PaymentDTO {
         private Long id;
-        private BigDecimal amount;
+        private Money amount;
         private String paymentStatus;
         private LocalDateTime paymentDate;
         private String cardLastFour;
@@ -1,32 +1,21 @@
 package com.e_commerce.backend.dto;
 
+import com.e_commerce.backend.money.Money;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
-import java.util.List;
-
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 public class PaymentRequest {
+    // Items and amounts are taken from the session's cart on the server
     private String sessionId;
-    private BigDecimal amount;
     private String cardName;
     private String cardNumber;
     private String expiryDate;
     private String cvv;
     private String shippingAddress;
-    private List<CartItemForOrder> cartItems;
-
-    @Data
-    @AllArgsConstructor
-    @NoArgsConstructor
-    public static class CartItemForOrder {
-        private int productId;
-        private int quantity;
-        private BigDecimal price;
-    }
+    // Optional: the total the client showed; checkout is refused with 409 when the server prices the cart differently
+    private Money expectedTotal;
 }
-
@@ -1,5 +1,6 @@
 package com.e_commerce.backend.dto;
 
+import com.e_commerce.backend.money.Money;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -12,5 +13,6 @@ public class PaymentResponse {
     private String message;
     private Long orderId;
     private Long paymentId;
+    private Money amount; // charged total, priced on the server; the current total on a 409
 }
 
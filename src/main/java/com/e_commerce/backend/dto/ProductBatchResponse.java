@@ -0,0 +1,15 @@
+package com.e_commerce.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductBatchResponse {
+    private List<ProductSummaryDTO> products; // in the requested order, duplicates removed
+    private List<Integer> missingIds;
+}
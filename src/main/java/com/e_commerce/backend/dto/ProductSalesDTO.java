@@ -0,0 +1,18 @@
+package com.e_commerce.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductSalesDTO {
+    private int productId;
+    private String productName;
+    private long unitsSold;
+    private long orderCount;
+    private BigDecimal revenue;
+}
@@ -0,0 +1,26 @@
+package com.e_commerce.backend.dto;
+
+import com.e_commerce.backend.models.Product;
+import com.e_commerce.backend.money.Money;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductStockUpdate {
+    private int productId;
+    private Money price;
+    private int quantity;
+    private boolean available;
+    private boolean deleted;
+
+    public static ProductStockUpdate of(Product product) {
+        return new ProductStockUpdate(product.getId(), product.getPrice(), product.getQuantity(), product.isAvailable(), false);
+    }
+
+    public static ProductStockUpdate deleted(int productId) {
+        return new ProductStockUpdate(productId, null, 0, false, true);
+    }
+}
@@ -1,11 +1,11 @@
 package com.e_commerce.backend.dto;
 
+import com.e_commerce.backend.models.Product;
+import com.e_commerce.backend.money.Money;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
-
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -13,10 +13,23 @@ public class ProductSummaryDTO {
     private int id;
     private String name;
     private String description;
-    private BigDecimal price;
+    private Money price;
     private String category;
     private String imageUrl;
     private boolean available;
     private int quantity;
+
+    public static ProductSummaryDTO of(Product product) {
+        return new ProductSummaryDTO(
+                product.getId(),
+                product.getName(),
+                product.getDescription(),
+                product.getPrice(),
+                product.getCategory(),
+                "/api/product/" + product.getId() + "/image",
+                product.isAvailable(),
+                product.getQuantity()
+        );
+    }
 }
 
@@ -0,0 +1,14 @@
+package com.e_commerce.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SuggestionDTO {
+    private String text;
+    private String type;       // PRODUCT or CATEGORY
+    private Integer productId; // null for categories
+}
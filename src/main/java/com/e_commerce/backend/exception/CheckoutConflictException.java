@@ -0,0 +1,27 @@
+package com.e_commerce.backend.exception;
+
+import com.e_commerce.backend.money.Money;
+
+/**
+ * Checkout cannot go ahead as requested: the session already has an order awaiting payment,
+ * or the cart no longer costs what the client was shown. Nothing was reserved or charged.
+ */
+public class CheckoutConflictException extends RuntimeException {
+
+    private final Long orderId;
+    private final Money currentTotal;
+
+    public CheckoutConflictException(String message, Long orderId, Money currentTotal) {
+        super(message);
+        this.orderId = orderId;
+        this.currentTotal = currentTotal;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public Money getCurrentTotal() {
+        return currentTotal;
+    }
+}
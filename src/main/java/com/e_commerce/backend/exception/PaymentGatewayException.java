@@ -0,0 +1,34 @@
+package com.e_commerce.backend.exception;
+
+/**
+ * The payment gateway could not give an answer (timeout, provider error, bulkhead full or circuit open).
+ * A decline is not an exception, it is a normal {@code GatewayChargeResult}.
+ * {@code outcomeUnknown} is false only when the request never reached the provider, so the card cannot have been charged.
+ */
+public class PaymentGatewayException extends RuntimeException {
+
+    private final boolean retryable;
+    private final boolean outcomeUnknown;
+
+    public PaymentGatewayException(String message, boolean retryable) {
+        this(message, retryable, true, null);
+    }
+
+    public PaymentGatewayException(String message, boolean retryable, Throwable cause) {
+        this(message, retryable, true, cause);
+    }
+
+    public PaymentGatewayException(String message, boolean retryable, boolean outcomeUnknown, Throwable cause) {
+        super(message, cause);
+        this.retryable = retryable;
+        this.outcomeUnknown = outcomeUnknown;
+    }
+
+    public boolean isRetryable() {
+        return retryable;
+    }
+
+    public boolean isOutcomeUnknown() {
+        return outcomeUnknown;
+    }
+}
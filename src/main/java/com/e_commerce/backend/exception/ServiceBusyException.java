@@ -0,0 +1,15 @@
+package com.e_commerce.backend.exception;
+
+/**
+ * A bounded resource (executor, limiter) is saturated; the client should retry shortly.
+ */
+public class ServiceBusyException extends RuntimeException {
+
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+
+    public ServiceBusyException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,11 @@
+package com.e_commerce.backend.exception;
+
+/**
+ * Sign-in attempt rejected by the login rate limiter (mapped to 429).
+ */
+public class TooManyAttemptsException extends RuntimeException {
+
+    public TooManyAttemptsException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,31 @@
+package com.e_commerce.backend.models;
+
+import com.e_commerce.backend.money.Money;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cold copy of an {@link Order} moved out of the hot table by the archival job. Ids are preserved.
+ */
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "orders_archive", indexes = {
+        @Index(name = "idx_orders_archive_session", columnList = "sessionId, orderDate"),
+        @Index(name = "idx_orders_archive_order_date", columnList = "orderDate")
+})
+public class ArchivedOrder {
+    @Id
+    private Long id;
+
+    private String sessionId;
+    private Money totalAmount;
+    private LocalDateTime orderDate;
+    private String status;
+    private String shippingAddress;
+}
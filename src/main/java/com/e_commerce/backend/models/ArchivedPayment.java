@@ -0,0 +1,27 @@
+package com.e_commerce.backend.models;
+
+import com.e_commerce.backend.money.Money;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "payments_archive", indexes = @Index(name = "idx_payments_archive_order", columnList = "orderId"))
+public class ArchivedPayment {
+    @Id
+    private Long id;
+
+    private Long orderId;
+    private Money amount;
+    private String paymentStatus;
+    private LocalDateTime paymentDate;
+    private String cardLastFour;
+    private String cardholderName;
+    private String transactionId;
+}
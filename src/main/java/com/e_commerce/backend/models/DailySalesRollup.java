@@ -0,0 +1,23 @@
+package com.e_commerce.backend.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "sales_daily_rollup")
+public class DailySalesRollup {
+    @Id
+    private LocalDate salesDate;
+
+    private long orderCount;
+    private long unitsSold;
+    private BigDecimal revenue;
+}
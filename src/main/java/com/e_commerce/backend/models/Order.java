@@ -1,11 +1,11 @@
 package com.e_commerce.backend.models;
 
+import com.e_commerce.backend.money.Money;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -14,14 +14,17 @@ import java.util.List;
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_session_date", columnList = "sessionId, orderDate"),
+        @Index(name = "idx_orders_order_date", columnList = "orderDate")
+})
 public class Order {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
     private String sessionId; // For guest users
-    private BigDecimal totalAmount;
+    private Money totalAmount;
     private LocalDateTime orderDate;
     private String status; // PENDING, COMPLETED, SHIPPED, CANCELLED
     private String shippingAddress;
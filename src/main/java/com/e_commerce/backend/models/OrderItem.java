@@ -1,17 +1,16 @@
 package com.e_commerce.backend.models;
 
+import com.e_commerce.backend.money.Money;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
-
 @Entity
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name = "order_items")
+@Table(name = "order_items", indexes = @Index(name = "idx_order_items_product_id", columnList = "product_id"))
 public class OrderItem {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -26,5 +25,6 @@ public class OrderItem {
     private Product product;
 
     private Integer quantity;
-    private BigDecimal price; // Price at the time of purchase
+    private Money price; // Price at the time of purchase
+    private Money discount; // Promotions taken off this line, including its share of any cart discount
 }
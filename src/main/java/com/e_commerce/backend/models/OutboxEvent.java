@@ -0,0 +1,39 @@
+package com.e_commerce.backend.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "outbox_events")
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String aggregateType; // ORDER, PRODUCT
+
+    @Column(nullable = false)
+    private String aggregateId;
+
+    @Column(nullable = false)
+    private String eventType; // OrderCompleted, OrderFailed, InventoryChanged, ...
+
+    @Column(columnDefinition = "text", nullable = false)
+    private String payload; // JSON
+
+    private LocalDateTime createdAt;
+    private LocalDateTime publishedAt; // null until the relay has handed it to the sink
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -1,11 +1,11 @@
 package com.e_commerce.backend.models;
 
+import com.e_commerce.backend.money.Money;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
@@ -19,11 +19,12 @@ public class Payment {
     private Long id;
 
     private Long orderId;
-    private BigDecimal amount;
-    private String paymentStatus; // COMPLETED, FAILED
+    private Money amount;
+    private String paymentStatus; // PENDING, COMPLETED, FAILED
     private LocalDateTime paymentDate;
     private String cardLastFour;
     private String cardholderName;
+    private String transactionId; // Reference returned by the payment gateway
 
     @PrePersist
     protected void onCreate() {
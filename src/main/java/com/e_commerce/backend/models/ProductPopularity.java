@@ -0,0 +1,23 @@
+package com.e_commerce.backend.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Aggregated view and add-to-cart counts; written only by PopularityCounters' batched flush
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "product_popularity")
+public class ProductPopularity {
+    @Id
+    private Integer productId;
+
+    private long views;
+    private long addToCart;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,22 @@
+package com.e_commerce.backend.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "product_sales_rollup", indexes = @Index(name = "idx_product_sales_rollup_units", columnList = "unitsSold"))
+public class ProductSalesRollup {
+    @Id
+    private Integer productId;
+
+    private long unitsSold;
+    private long orderCount;
+    private BigDecimal revenue;
+}
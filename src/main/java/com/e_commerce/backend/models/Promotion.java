@@ -0,0 +1,67 @@
+package com.e_commerce.backend.models;
+
+import com.e_commerce.backend.money.Money;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "promotions")
+public class Promotion {
+
+    public enum Type {
+        PERCENT_OFF,  // percentOff of the line, or of the cart for CART scope
+        AMOUNT_OFF,   // amountOff per unit, or once off the cart for CART scope
+        BUY_X_GET_Y   // every buyQuantity + getQuantity units, getQuantity are free; PRODUCT/CATEGORY only
+    }
+
+    public enum Scope {
+        PRODUCT,
+        CATEGORY,
+        CART
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Type type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Scope scope;
+
+    private Integer productId; // PRODUCT scope
+    private String category;   // CATEGORY scope
+
+    private BigDecimal percentOff;
+    private Money amountOff;
+    private Integer buyQuantity;
+    private Integer getQuantity;
+
+    private Integer minQuantity;   // line threshold for PRODUCT/CATEGORY rules
+    private Money minSubtotal; // cart threshold for CART rules
+
+    private LocalDateTime startsAt; // null = already started
+    private LocalDateTime endsAt;   // null = no end
+    private boolean active;
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,27 @@
+package com.e_commerce.backend.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "revoked_tokens", indexes = {
+        @Index(name = "idx_revoked_tokens_revoked_at", columnList = "revokedAt"),
+        @Index(name = "idx_revoked_tokens_expires_at", columnList = "expiresAt")
+})
+public class RevokedToken {
+    @Id
+    private String jti; // Token id claim
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt; // Row can be dropped once the token would have expired anyway
+
+    @Column(nullable = false)
+    private LocalDateTime revokedAt;
+}
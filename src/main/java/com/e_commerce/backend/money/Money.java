@@ -0,0 +1,146 @@
+package com.e_commerce.backend.money;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.hibernate.annotations.Immutable;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+
+/**
+ * An amount as a whole number of minor units (cents) of a currency. Arithmetic is exact long arithmetic that
+ * fails on overflow instead of wrapping; the only operations that can lose precision take a {@link RoundingMode}.
+ * Stored as DECIMAL through {@link MoneyConverter} and written to JSON as a plain number, e.g. {@code 19.99}.
+ * {@code @Immutable} tells Hibernate it can share instances instead of copying them for dirty checking.
+ */
+@Immutable
+@JsonSerialize(using = MoneyJsonSerializer.class)
+@JsonDeserialize(using = MoneyJsonDeserializer.class)
+public record Money(long minorUnits, Currency currency) implements Comparable<Money>, Serializable {
+
+    // The store prices in one currency; columns and JSON carry no currency code
+    public static final Currency STORE_CURRENCY = Currency.getInstance("USD");
+
+    public static final Money ZERO = new Money(0, STORE_CURRENCY);
+
+    public Money {
+        if (currency == null) {
+            throw new IllegalArgumentException("Currency is required");
+        }
+        if (currency.getDefaultFractionDigits() < 0) {
+            throw new IllegalArgumentException("Currency has no minor unit: " + currency);
+        }
+    }
+
+    public static Money ofMinor(long minorUnits) {
+        return minorUnits == 0 ? ZERO : new Money(minorUnits, STORE_CURRENCY);
+    }
+
+    // Amounts with more decimals than the currency allows are rounded with the given mode; UNNECESSARY rejects them
+    public static Money of(BigDecimal amount, RoundingMode rounding) {
+        return of(amount, STORE_CURRENCY, rounding);
+    }
+
+    public static Money of(BigDecimal amount, Currency currency, RoundingMode rounding) {
+        long minor = amount.setScale(currency.getDefaultFractionDigits(), rounding).unscaledValue().longValueExact();
+        return new Money(minor, currency);
+    }
+
+    public Money plus(Money other) {
+        requireSameCurrency(other);
+        return other.minorUnits == 0 ? this : new Money(Math.addExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public Money minus(Money other) {
+        requireSameCurrency(other);
+        return other.minorUnits == 0 ? this : new Money(Math.subtractExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public Money times(long quantity) {
+        return quantity == 1 ? this : new Money(Math.multiplyExact(minorUnits, quantity), currency);
+    }
+
+    // basisPoints / 10000 of this amount, e.g. 1250 for 12.5%
+    public Money percentage(long basisPoints, RoundingMode rounding) {
+        return new Money(divide(Math.multiplyExact(minorUnits, basisPoints), 10_000, rounding), currency);
+    }
+
+    public Money min(Money other) {
+        return compareTo(other) <= 0 ? this : other;
+    }
+
+    public Money max(Money other) {
+        return compareTo(other) >= 0 ? this : other;
+    }
+
+    public boolean isZero() {
+        return minorUnits == 0;
+    }
+
+    public int signum() {
+        return Long.signum(minorUnits);
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, currency.getDefaultFractionDigits());
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        requireSameCurrency(other);
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    // Plain decimal without the currency, e.g. "-0.05"; this is also the JSON form
+    @Override
+    public String toString() {
+        int scale = currency.getDefaultFractionDigits();
+        if (scale == 0) {
+            return Long.toString(minorUnits);
+        }
+        String digits = Long.toString(Math.abs(minorUnits));
+        StringBuilder text = new StringBuilder(digits.length() + scale + 2);
+        if (minorUnits < 0) {
+            text.append('-');
+        }
+        int whole = digits.length() - scale;
+        if (whole <= 0) {
+            text.append("0.");
+            text.repeat('0', -whole);
+            text.append(digits);
+        } else {
+            text.append(digits, 0, whole).append('.').append(digits, whole, digits.length());
+        }
+        return text.toString();
+    }
+
+    private void requireSameCurrency(Money other) {
+        if (other.currency != currency) {
+            throw new IllegalArgumentException("Currency mismatch: " + currency + " and " + other.currency);
+        }
+    }
+
+    // Integer division of a by a positive b, rounded like BigDecimal would; for hot paths working in minor units
+    public static long divide(long a, long b, RoundingMode rounding) {
+        long quotient = a / b;
+        long remainder = a % b;
+        if (remainder == 0) {
+            return quotient;
+        }
+        int sign = a < 0 ? -1 : 1;
+        int half = Long.compare(Math.abs(remainder) * 2, b);
+        boolean awayFromZero = switch (rounding) {
+            case UP -> true;
+            case DOWN -> false;
+            case CEILING -> sign > 0;
+            case FLOOR -> sign < 0;
+            case HALF_UP -> half >= 0;
+            case HALF_DOWN -> half > 0;
+            case HALF_EVEN -> half > 0 || (half == 0 && (quotient & 1) != 0);
+            case UNNECESSARY -> throw new ArithmeticException("Rounding necessary");
+        };
+        return awayFromZero ? quotient + sign : quotient;
+    }
+}
@@ -0,0 +1,23 @@
+package com.e_commerce.backend.money;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Applies to every Money attribute
+@Converter(autoApply = true)
+public class MoneyConverter implements AttributeConverter<Money, BigDecimal> {
+
+    @Override
+    public BigDecimal convertToDatabaseColumn(Money money) {
+        return money != null ? money.toBigDecimal() : null;
+    }
+
+    @Override
+    public Money convertToEntityAttribute(BigDecimal amount) {
+        // Columns are DECIMAL(x,2), so nothing is ever rounded here
+        return amount != null ? Money.of(amount, RoundingMode.UNNECESSARY) : null;
+    }
+}
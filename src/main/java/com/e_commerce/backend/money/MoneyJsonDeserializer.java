@@ -0,0 +1,39 @@
+package com.e_commerce.backend.money;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Accepts a number or a numeric string; amounts finer than a cent are rejected rather than silently rounded
+public class MoneyJsonDeserializer extends StdDeserializer<Money> {
+
+    public MoneyJsonDeserializer() {
+        super(Money.class);
+    }
+
+    @Override
+    public Money deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        BigDecimal amount;
+        if (p.currentToken() == JsonToken.VALUE_STRING) {
+            try {
+                amount = new BigDecimal(p.getText().trim());
+            } catch (NumberFormatException e) {
+                return (Money) ctxt.handleWeirdStringValue(Money.class, p.getText(), "not a decimal amount");
+            }
+        } else if (p.currentToken().isNumeric()) {
+            amount = p.getDecimalValue();
+        } else {
+            return (Money) ctxt.handleUnexpectedToken(Money.class, p);
+        }
+        try {
+            return Money.of(amount, RoundingMode.UNNECESSARY);
+        } catch (ArithmeticException e) {
+            throw ctxt.weirdNumberException(amount, Money.class, "more decimal places than the currency allows");
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.e_commerce.backend.repositories;
+
+import com.e_commerce.backend.models.ArchivedOrder;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, Long> {
+
+    List<ArchivedOrder> findBySessionIdOrderByOrderDateDesc(String sessionId);
+
+    @Query("SELECT MIN(o.orderDate) FROM ArchivedOrder o WHERE o.status = 'COMPLETED'")
+    LocalDateTime findFirstCompletedOrderDate();
+
+    // Archival moves one chunk of finished orders per transaction; SKIP LOCKED keeps it out of checkout's way
+    @Query(value = "SELECT id FROM orders WHERE order_date < :cutoff AND status <> 'PENDING' " +
+            "ORDER BY id LIMIT :batchSize FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<Long> lockArchivableOrderIds(@Param("cutoff") LocalDateTime cutoff, @Param("batchSize") int batchSize);
+
+    @Modifying
+    @Query(value = "INSERT INTO orders_archive (id, session_id, total_amount, order_date, status, shipping_address) " +
+            "SELECT id, session_id, total_amount, order_date, status, shipping_address FROM orders WHERE id IN (:ids)",
+            nativeQuery = true)
+    int copyOrders(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query(value = "INSERT INTO order_items_archive (id, order_id, product_id, quantity, price, discount) " +
+            "SELECT id, order_id, product_id, quantity, price, discount FROM order_items WHERE order_id IN (:ids)",
+            nativeQuery = true)
+    int copyOrderItems(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query(value = "INSERT INTO payments_archive (id, order_id, amount, payment_status, payment_date, " +
+            "card_last_four, cardholder_name, transaction_id) " +
+            "SELECT id, order_id, amount, payment_status, payment_date, card_last_four, cardholder_name, transaction_id " +
+            "FROM payments WHERE order_id IN (:ids)",
+            nativeQuery = true)
+    int copyPayments(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM payments WHERE order_id IN (:ids)", nativeQuery = true)
+    int deletePayments(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM order_items WHERE order_id IN (:ids)", nativeQuery = true)
+    int deleteOrderItems(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM orders WHERE id IN (:ids)", nativeQuery = true)
+    int deleteOrders(@Param("ids") List<Long> ids);
+}
@@ -0,0 +1,12 @@
+package com.e_commerce.backend.repositories;
+
+import com.e_commerce.backend.models.ArchivedPayment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ArchivedPaymentRepository extends JpaRepository<ArchivedPayment, Long> {
+    List<ArchivedPayment> findByOrderId(Long orderId);
+}
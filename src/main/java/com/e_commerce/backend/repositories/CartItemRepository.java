@@ -16,6 +16,12 @@ public interface CartItemRepository extends JpaRepository<CartItem, Long> {
     @Query("SELECT ci FROM CartItem ci JOIN FETCH ci.product WHERE ci.sessionId = :sessionId ORDER BY ci.id DESC")
     List<CartItem> findBySessionIdOrderByIdDesc(@Param("sessionId") String sessionId);
 
+    // Checkout only needs what to reserve; the product rows are read under lock separately. The cart rows are
+    // locked too, so a second checkout of the same cart waits for the first and then sees its order
+    @Query(value = "SELECT product_id, quantity FROM cart_item WHERE session_id = :sessionId ORDER BY product_id FOR UPDATE",
+            nativeQuery = true)
+    List<Object[]> lockProductQuantitiesBySessionId(@Param("sessionId") String sessionId);
+
     Optional<CartItem> findBySessionIdAndProduct(String sessionId, Product product);
 
     Optional<CartItem> findByIdAndSessionId(Long id, String sessionId);
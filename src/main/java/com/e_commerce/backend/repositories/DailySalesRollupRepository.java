@@ -0,0 +1,80 @@
+package com.e_commerce.backend.repositories;
+
+import com.e_commerce.backend.models.DailySalesRollup;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface DailySalesRollupRepository extends JpaRepository<DailySalesRollup, LocalDate> {
+
+    List<DailySalesRollup> findBySalesDateBetweenOrderBySalesDateAsc(LocalDate from, LocalDate to);
+
+    @Modifying
+    @Query(value = "INSERT INTO sales_daily_rollup (sales_date, order_count, units_sold, revenue) " +
+            "VALUES (:salesDate, 1, :units, :revenue) " +
+            "ON CONFLICT (sales_date) DO UPDATE SET " +
+            "order_count = sales_daily_rollup.order_count + 1, " +
+            "units_sold = sales_daily_rollup.units_sold + EXCLUDED.units_sold, " +
+            "revenue = sales_daily_rollup.revenue + EXCLUDED.revenue",
+            nativeQuery = true)
+    void addOrder(@Param("salesDate") LocalDate salesDate, @Param("units") long units, @Param("revenue") BigDecimal revenue);
+
+    @Query("SELECT MIN(r.salesDate) FROM DailySalesRollup r")
+    LocalDate findFirstSalesDate();
+
+    // The rebuild recomputes one range of days per transaction (see SalesAnalyticsService.rebuild)
+
+    // Days with completed orders get a row first, so every day being recomputed has a row to lock
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "sales_daily_rollup"))
+    @Query(value = "INSERT INTO sales_daily_rollup (sales_date, order_count, units_sold, revenue) " +
+            "SELECT DISTINCT CAST(o.order_date AS date), 0, 0, 0 " +
+            "FROM (SELECT order_date FROM orders " +
+            "      WHERE status = 'COMPLETED' AND order_date >= :from AND order_date < :to " +
+            "      UNION ALL SELECT order_date FROM orders_archive " +
+            "      WHERE status = 'COMPLETED' AND order_date >= :from AND order_date < :to) o " +
+            "ORDER BY 1 " +
+            "ON CONFLICT (sales_date) DO NOTHING",
+            nativeQuery = true)
+    void insertMissingDays(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Checkouts completing on these days wait for the range's transaction instead of updating rows being recomputed
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM DailySalesRollup r WHERE r.salesDate >= :from AND r.salesDate < :to ORDER BY r.salesDate")
+    List<DailySalesRollup> lockDays(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "sales_daily_rollup"))
+    @Query(value = "DELETE FROM sales_daily_rollup WHERE sales_date IN (:days)", nativeQuery = true)
+    void deleteDays(@Param("days") List<LocalDate> days);
+
+    // Only the locked days: a day first sold after the lock has a row holding exactly its new orders
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "sales_daily_rollup"))
+    @Query(value = "INSERT INTO sales_daily_rollup (sales_date, order_count, units_sold, revenue) " +
+            "SELECT CAST(o.order_date AS date), COUNT(*), COALESCE(SUM(o.units), 0), COALESCE(SUM(o.total_amount), 0) " +
+            "FROM (SELECT order_date, total_amount, " +
+            "        (SELECT SUM(i.quantity) FROM order_items i WHERE i.order_id = orders.id) AS units " +
+            "      FROM orders WHERE status = 'COMPLETED' AND order_date >= :from AND order_date < :to " +
+            "      UNION ALL SELECT order_date, total_amount, " +
+            "        (SELECT SUM(i.quantity) FROM order_items_archive i WHERE i.order_id = orders_archive.id) " +
+            "      FROM orders_archive WHERE status = 'COMPLETED' AND order_date >= :from AND order_date < :to) o " +
+            "WHERE CAST(o.order_date AS date) IN (:days) " +
+            "GROUP BY CAST(o.order_date AS date)",
+            nativeQuery = true)
+    void rebuildDays(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                     @Param("days") List<LocalDate> days);
+}
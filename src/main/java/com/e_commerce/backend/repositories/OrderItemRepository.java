@@ -1,13 +1,29 @@
 package com.e_commerce.backend.repositories;
 
 import com.e_commerce.backend.models.OrderItem;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
     List<OrderItem> findByOrderId(Long orderId);
+
+    // (order id, product id) of every completed order, live and archived, grouped by order; must be consumed in a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(value = "SELECT oi.order_id, oi.product_id " +
+            "FROM (SELECT order_id, product_id FROM order_items " +
+            "      UNION ALL SELECT order_id, product_id FROM order_items_archive) oi " +
+            "JOIN (SELECT id FROM orders WHERE status = 'COMPLETED' " +
+            "      UNION ALL SELECT id FROM orders_archive WHERE status = 'COMPLETED') o ON o.id = oi.order_id " +
+            "ORDER BY oi.order_id",
+            nativeQuery = true)
+    Stream<Object[]> streamCompletedOrderProducts();
 }
 
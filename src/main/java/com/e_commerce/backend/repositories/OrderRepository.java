@@ -1,13 +1,31 @@
 package com.e_commerce.backend.repositories;
 
 import com.e_commerce.backend.models.Order;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findBySessionIdOrderByOrderDateDesc(String sessionId);
-}
 
+    Optional<Order> findFirstBySessionIdAndStatus(String sessionId, String status);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id = :id")
+    Optional<Order> findByIdForUpdate(@Param("id") Long id);
+
+    @Query("SELECT MIN(o.orderDate) FROM Order o WHERE o.status = 'COMPLETED'")
+    LocalDateTime findFirstCompletedOrderDate();
+
+    @Query("SELECT o.id FROM Order o WHERE o.status = 'PENDING' AND o.orderDate < :cutoff ORDER BY o.id")
+    List<Long> findPendingIdsBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+}
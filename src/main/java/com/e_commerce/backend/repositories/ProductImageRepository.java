@@ -0,0 +1,15 @@
+package com.e_commerce.backend.repositories;
+
+import com.e_commerce.backend.models.ProductImage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProductImageRepository extends JpaRepository<ProductImage, Integer>, ProductImageStreamRepository {
+
+    @Modifying
+    @Query("DELETE FROM ProductImage i WHERE i.productId = :productId")
+    void deleteByProductId(int productId);
+}
@@ -0,0 +1,9 @@
+package com.e_commerce.backend.repositories;
+
+import java.io.InputStream;
+
+public interface ProductImageStreamRepository {
+
+    // Inserts or replaces the image, passing exactly length bytes of data to the driver as a stream
+    void saveImage(int productId, InputStream data, long length);
+}
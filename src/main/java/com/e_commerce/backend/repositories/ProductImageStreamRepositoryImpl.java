@@ -0,0 +1,26 @@
+package com.e_commerce.backend.repositories;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.InputStream;
+
+public class ProductImageStreamRepositoryImpl implements ProductImageStreamRepository {
+
+    private static final String UPSERT = "INSERT INTO product_images (product_id, image_data) VALUES (?, ?) " +
+            "ON CONFLICT (product_id) DO UPDATE SET image_data = EXCLUDED.image_data";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public void saveImage(int productId, InputStream data, long length) {
+        // With a known length the driver copies the stream to the socket instead of building a byte[] first
+        jdbcTemplate.update(UPSERT, ps -> {
+            ps.setInt(1, productId);
+            ps.setBinaryStream(2, data, length);
+        });
+    }
+}
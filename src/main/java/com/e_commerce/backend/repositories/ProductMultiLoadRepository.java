@@ -0,0 +1,10 @@
+package com.e_commerce.backend.repositories;
+
+import com.e_commerce.backend.models.Product;
+
+import java.util.List;
+
+public interface ProductMultiLoadRepository {
+    // Same order as ids, null for ids that do not exist; cached products are not queried again
+    List<Product> findAllByIdCached(List<Integer> ids);
+}
@@ -0,0 +1,24 @@
+package com.e_commerce.backend.repositories;
+
+import com.e_commerce.backend.models.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public class ProductMultiLoadRepositoryImpl implements ProductMultiLoadRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Product> findAllByIdCached(List<Integer> ids) {
+        // Checks the second-level cache first and fetches only the misses, in one IN query
+        return entityManager.unwrap(Session.class)
+                .byMultipleIds(Product.class)
+                .multiLoad(ids);
+    }
+}
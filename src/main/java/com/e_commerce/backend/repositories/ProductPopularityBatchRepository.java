@@ -0,0 +1,12 @@
+package com.e_commerce.backend.repositories;
+
+import java.util.List;
+
+public interface ProductPopularityBatchRepository {
+
+    record CountDelta(int productId, long views, long addToCart) {
+    }
+
+    // One JDBC batch of additive upserts
+    void addCounts(List<CountDelta> deltas);
+}
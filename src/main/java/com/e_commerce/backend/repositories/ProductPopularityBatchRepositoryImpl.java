@@ -0,0 +1,34 @@
+package com.e_commerce.backend.repositories;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public class ProductPopularityBatchRepositoryImpl implements ProductPopularityBatchRepository {
+
+    private static final String UPSERT = "INSERT INTO product_popularity (product_id, views, add_to_cart, updated_at) " +
+            "VALUES (?, ?, ?, now()) " +
+            "ON CONFLICT (product_id) DO UPDATE SET " +
+            "views = product_popularity.views + EXCLUDED.views, " +
+            "add_to_cart = product_popularity.add_to_cart + EXCLUDED.add_to_cart, " +
+            "updated_at = EXCLUDED.updated_at";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public void addCounts(List<CountDelta> deltas) {
+        // Sorted so concurrent flushes from several nodes lock rows in the same order
+        List<CountDelta> ordered = deltas.stream()
+                .sorted((a, b) -> Integer.compare(a.productId(), b.productId()))
+                .toList();
+        jdbcTemplate.batchUpdate(UPSERT, ordered, ordered.size(), (ps, delta) -> {
+            ps.setInt(1, delta.productId());
+            ps.setLong(2, delta.views());
+            ps.setLong(3, delta.addToCart());
+        });
+    }
+}
@@ -0,0 +1,15 @@
+package com.e_commerce.backend.repositories;
+
+import com.e_commerce.backend.models.ProductPopularity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ProductPopularityRepository extends JpaRepository<ProductPopularity, Integer>, ProductPopularityBatchRepository {
+
+    @Query("SELECT p.productId, p.views, p.addToCart FROM ProductPopularity p")
+    List<Object[]> findAllCounts();
+}
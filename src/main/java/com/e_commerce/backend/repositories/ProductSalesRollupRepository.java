@@ -0,0 +1,79 @@
+package com.e_commerce.backend.repositories;
+
+import com.e_commerce.backend.models.ProductSalesRollup;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface ProductSalesRollupRepository extends JpaRepository<ProductSalesRollup, Integer> {
+
+    List<ProductSalesRollup> findAllByOrderByUnitsSoldDesc(Pageable pageable);
+
+    @Query("SELECT r.productId, r.unitsSold FROM ProductSalesRollup r")
+    List<Object[]> findAllUnitsSold();
+
+    @Modifying
+    @Query(value = "INSERT INTO product_sales_rollup (product_id, units_sold, order_count, revenue) " +
+            "VALUES (:productId, :units, 1, :revenue) " +
+            "ON CONFLICT (product_id) DO UPDATE SET " +
+            "units_sold = product_sales_rollup.units_sold + EXCLUDED.units_sold, " +
+            "order_count = product_sales_rollup.order_count + 1, " +
+            "revenue = product_sales_rollup.revenue + EXCLUDED.revenue",
+            nativeQuery = true)
+    void addSale(@Param("productId") int productId, @Param("units") long units, @Param("revenue") BigDecimal revenue);
+
+    @Query(value = "SELECT COALESCE(MAX(id), 0) FROM (SELECT MAX(product_id) AS id FROM product_sales_rollup " +
+            "UNION ALL SELECT MAX(id) FROM product) ids",
+            nativeQuery = true)
+    int findMaxProductId();
+
+    // The rebuild recomputes one range of product ids per transaction, like the daily rollup
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "product_sales_rollup"))
+    @Query(value = "INSERT INTO product_sales_rollup (product_id, units_sold, order_count, revenue) " +
+            "SELECT DISTINCT oi.product_id, 0, 0, 0 " +
+            "FROM (SELECT i.product_id FROM order_items i JOIN orders o ON o.id = i.order_id " +
+            "      WHERE o.status = 'COMPLETED' AND i.product_id >= :from AND i.product_id < :to " +
+            "      UNION ALL SELECT i.product_id FROM order_items_archive i JOIN orders_archive o ON o.id = i.order_id " +
+            "      WHERE o.status = 'COMPLETED' AND i.product_id >= :from AND i.product_id < :to) oi " +
+            "ORDER BY 1 " +
+            "ON CONFLICT (product_id) DO NOTHING",
+            nativeQuery = true)
+    void insertMissingProducts(@Param("from") int from, @Param("to") int to);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM ProductSalesRollup r WHERE r.productId >= :from AND r.productId < :to ORDER BY r.productId")
+    List<ProductSalesRollup> lockProducts(@Param("from") int from, @Param("to") int to);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "product_sales_rollup"))
+    @Query(value = "DELETE FROM product_sales_rollup WHERE product_id IN (:productIds)", nativeQuery = true)
+    void deleteProducts(@Param("productIds") List<Integer> productIds);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "product_sales_rollup"))
+    @Query(value = "INSERT INTO product_sales_rollup (product_id, units_sold, order_count, revenue) " +
+            "SELECT oi.product_id, SUM(oi.quantity), COUNT(DISTINCT oi.order_id), " +
+            "       COALESCE(SUM(oi.price * oi.quantity - COALESCE(oi.discount, 0)), 0) " +
+            "FROM (SELECT i.order_id, i.product_id, i.quantity, i.price, i.discount " +
+            "      FROM order_items i JOIN orders o ON o.id = i.order_id WHERE o.status = 'COMPLETED' " +
+            "      UNION ALL SELECT i.order_id, i.product_id, i.quantity, i.price, i.discount " +
+            "      FROM order_items_archive i JOIN orders_archive o ON o.id = i.order_id WHERE o.status = 'COMPLETED') oi " +
+            "WHERE oi.product_id IN (:productIds) " +
+            "GROUP BY oi.product_id",
+            nativeQuery = true)
+    void rebuildProducts(@Param("productIds") List<Integer> productIds);
+}
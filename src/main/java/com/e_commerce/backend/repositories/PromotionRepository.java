@@ -0,0 +1,20 @@
+package com.e_commerce.backend.repositories;
+
+import com.e_commerce.backend.models.Promotion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface PromotionRepository extends JpaRepository<Promotion, Long> {
+
+    // Includes rules that have not started yet so the index can switch them on without a reload
+    @Query("SELECT p FROM Promotion p WHERE p.active = true AND (p.endsAt IS NULL OR p.endsAt > :now)")
+    List<Promotion> findLive(@Param("now") LocalDateTime now);
+
+    List<Promotion> findAllByOrderByIdDesc();
+}
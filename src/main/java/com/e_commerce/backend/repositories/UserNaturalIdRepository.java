@@ -0,0 +1,10 @@
+package com.e_commerce.backend.repositories;
+
+import com.e_commerce.backend.models.User;
+
+import java.util.Optional;
+
+public interface UserNaturalIdRepository {
+    // Resolves through the natural-id and entity caches before touching the database
+    Optional<User> findCachedByUsername(String username);
+}
@@ -5,22 +5,42 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserNaturalIdRepository {
     Optional<User> findByUsername(String username);
     Optional<User> findByEmail(String email);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
 
+    @Query("SELECT u.username, u.email FROM User u")
+    List<Object[]> findAllUsernamesAndEmails();
+
+    @Query("SELECT u.username, u.email FROM User u WHERE u.createdAt > :since")
+    List<Object[]> findUsernamesAndEmailsCreatedSince(LocalDateTime since);
+
+    @Transactional
     @Modifying
     @Query("UPDATE User u SET u.failedLoginAttempts = :attempts, u.lastFailedLogin = :lastFailed WHERE u.username = :username")
     void updateFailedAttempts(String username, int attempts, LocalDateTime lastFailed);
 
+    // Locking also revokes every token issued to the users
+    @Transactional
     @Modifying
-    @Query("UPDATE User u SET u.lockedUntil = :lockedUntil WHERE u.username = :username")
-    void lockUser(String username, LocalDateTime lockedUntil);
+    @Query("UPDATE User u SET u.lockedUntil = :lockedUntil, u.tokenVersion = u.tokenVersion + 1 WHERE u.username IN :usernames")
+    int lockUsers(Collection<String> usernames, LocalDateTime lockedUntil);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.username = :username")
+    void updatePassword(String username, String password);
+
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.id = :id")
+    Optional<Integer> findTokenVersionById(Long id);
 }
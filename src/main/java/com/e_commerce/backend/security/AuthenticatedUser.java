@@ -0,0 +1,17 @@
+package com.e_commerce.backend.security;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.security.Principal;
+import java.util.List;
+
+/**
+ * Principal built from signed token claims, so authenticated requests don't need to load the user row.
+ */
+public record AuthenticatedUser(Long id, String username, List<GrantedAuthority> authorities) implements Principal {
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
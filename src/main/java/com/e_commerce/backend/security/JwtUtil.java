@@ -1,8 +1,10 @@
 package com.e_commerce.backend.security;
 
+import com.e_commerce.backend.models.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
@@ -11,11 +13,16 @@ import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Component
 public class JwtUtil {
 
+    public static final String ROLE_CLAIM = "role";
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String TOKEN_VERSION_CLAIM = "ver";
+
     // You can override this in application.properties with a long Base64-encoded secret
     @Value("${jwt.secret:ZmFrZXNlY3JldGtleTEyMzQ1Njc4OTAxMjM0NTY3ODkwMTI=}")
     private String secret;
@@ -23,6 +30,23 @@ public class JwtUtil {
     @Value("${jwt.expiration:86400000}") // 24 hours in milliseconds
     private int jwtExpiration;
 
+    private Key signKey;
+    private JwtParser parser;
+
+    // Decode the secret and build the (immutable, thread-safe) parser once instead of on every call
+    @PostConstruct
+    void init() {
+        signKey = buildSignKey();
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signKey)
+                .build();
+    }
+
+    // Verify signature and expiry with a single parse
+    public VerifiedToken verify(String token) {
+        return new VerifiedToken(extractAllClaims(token));
+    }
+
     // Extract username from token
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
@@ -39,25 +63,22 @@ public class JwtUtil {
         return claimsResolver.apply(claims);
     }
 
-    // Parse all claims
+    // Parse all claims (throws ExpiredJwtException for expired tokens)
     private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignKey())
-                .build()
+        return parser
                 .parseClaimsJws(token)
                 .getBody();
     }
 
-    // Check if token expired
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
     // Generate token for user
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
-        claims.put("role", userDetails.getAuthorities());
+        claims.put(ROLE_CLAIM, userDetails.getAuthorities());
+        if (userDetails instanceof User user) {
+            // Lets the filter authenticate from the token alone and revoke it by bumping the version
+            claims.put(USER_ID_CLAIM, user.getId());
+            claims.put(TOKEN_VERSION_CLAIM, user.getTokenVersion());
+        }
         return createToken(claims, userDetails.getUsername());
     }
 
@@ -65,21 +86,25 @@ public class JwtUtil {
     private String createToken(Map<String, Object> claims, String subject) {
         return Jwts.builder()
                 .setClaims(claims)
+                .setId(UUID.randomUUID().toString()) // jti, used to revoke this token on logout
                 .setSubject(subject)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSignKey(), SignatureAlgorithm.HS256)
+                .signWith(signKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     // Validate token
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        try {
+            return verify(token).getUsername().equals(userDetails.getUsername());
+        } catch (JwtException e) {
+            return false;
+        }
     }
 
     // Get secure signing key
-    private Key getSignKey() {
+    private Key buildSignKey() {
         try {
             byte[] keyBytes = Decoders.BASE64.decode(secret);
             if (keyBytes.length < 32) { // HS256 requires 256-bit (32 bytes)
@@ -87,7 +112,7 @@ public class JwtUtil {
             }
             return Keys.hmacShaKeyFor(keyBytes);
         } catch (Exception e) {
-            // Fallback: generate secure random key if secret invalid
+            // Fallback: generate secure random key if secret invalid (tokens won't survive a restart)
             return Keys.secretKeyFor(SignatureAlgorithm.HS256);
         }
     }
@@ -0,0 +1,159 @@
+package com.e_commerce.backend.security;
+
+import com.e_commerce.backend.exception.TooManyAttemptsException;
+import com.e_commerce.backend.repositories.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * In-memory login throttling. Token buckets per username and per client IP absorb bursts before any
+ * DB access or bcrypt work, and failed attempts are counted in memory. Only the lockout transition
+ * is persisted, and that happens asynchronously in batches, so credential stuffing can't turn into
+ * a write storm on the users table.
+ */
+@Component
+public class LoginThrottle {
+
+    private static final Logger log = LoggerFactory.getLogger(LoginThrottle.class);
+
+    private static final class UserEntry extends StripedTokenBuckets.Bucket {
+        private int failures;
+        private long lockedUntilMillis;
+
+        private UserEntry(double capacity) {
+            super(capacity);
+        }
+    }
+
+    private record PendingLockout(Long userId, String username) {
+    }
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TokenVersionCache tokenVersionCache;
+
+    @Value("${login.max-failed-attempts:5}")
+    private int maxFailedAttempts;
+
+    @Value("${login.lock-hours:24}")
+    private int lockHours;
+
+    @Value("${login.lockout-flush-batch-size:500}")
+    private int flushBatchSize;
+
+    private final StripedTokenBuckets<UserEntry> usernameBuckets;
+    private final StripedTokenBuckets<StripedTokenBuckets.Bucket> ipBuckets;
+    private final ConcurrentLinkedQueue<PendingLockout> pendingLockouts = new ConcurrentLinkedQueue<>();
+
+    private final Counter rejectedByUsername;
+    private final Counter rejectedByIp;
+    private final Counter rejectedLocked;
+    private final Counter failedAttempts;
+    private final Counter lockouts;
+
+    public LoginThrottle(MeterRegistry meterRegistry,
+                         @Value("${login.limit.stripes:64}") int stripes,
+                         @Value("${login.limit.max-entries-per-stripe:4096}") int maxEntriesPerStripe,
+                         @Value("${login.limit.username.capacity:10}") double usernameCapacity,
+                         @Value("${login.limit.username.refill-per-minute:10}") double usernameRefillPerMinute,
+                         @Value("${login.limit.ip.capacity:30}") double ipCapacity,
+                         @Value("${login.limit.ip.refill-per-minute:30}") double ipRefillPerMinute) {
+        this.usernameBuckets = new StripedTokenBuckets<>(stripes, maxEntriesPerStripe,
+                usernameCapacity, usernameRefillPerMinute, UserEntry::new);
+        this.ipBuckets = new StripedTokenBuckets<>(stripes, maxEntriesPerStripe,
+                ipCapacity, ipRefillPerMinute, StripedTokenBuckets.Bucket::new);
+
+        this.rejectedByUsername = Counter.builder("login.rejected").tag("reason", "username-rate").register(meterRegistry);
+        this.rejectedByIp = Counter.builder("login.rejected").tag("reason", "ip-rate").register(meterRegistry);
+        this.rejectedLocked = Counter.builder("login.rejected").tag("reason", "locked").register(meterRegistry);
+        this.failedAttempts = Counter.builder("login.failed").register(meterRegistry);
+        this.lockouts = Counter.builder("login.lockouts").register(meterRegistry);
+    }
+
+    /**
+     * Throws when this attempt must be rejected before touching the database or bcrypt.
+     */
+    public void checkAllowed(String username, String clientIp) {
+        String key = normalise(username);
+        if (isLocked(key)) {
+            rejectedLocked.increment();
+            throw new RuntimeException("Account is locked due to multiple failed login attempts. Please try again later.");
+        }
+        if (clientIp != null && !ipBuckets.tryConsume(clientIp)) {
+            rejectedByIp.increment();
+            throw new TooManyAttemptsException("Too many sign-in attempts, please wait a minute and try again.");
+        }
+        if (!usernameBuckets.tryConsume(key)) {
+            rejectedByUsername.increment();
+            throw new TooManyAttemptsException("Too many sign-in attempts, please wait a minute and try again.");
+        }
+    }
+
+    public void recordFailure(Long userId, String username) {
+        failedAttempts.increment();
+        long lockUntil = System.currentTimeMillis() + lockHours * 3_600_000L;
+        boolean lockedNow = usernameBuckets.withEntry(normalise(username), entry -> {
+            entry.failures++;
+            if (entry.failures >= maxFailedAttempts && entry.lockedUntilMillis < System.currentTimeMillis()) {
+                entry.lockedUntilMillis = lockUntil;
+                entry.failures = 0;
+                return true;
+            }
+            return false;
+        });
+        if (lockedNow) {
+            lockouts.increment();
+            pendingLockouts.add(new PendingLockout(userId, username));
+        }
+    }
+
+    public void recordSuccess(String username) {
+        usernameBuckets.withEntry(normalise(username), entry -> {
+            entry.failures = 0;
+            return null;
+        });
+    }
+
+    // Persists lockout transitions in batches; the in-memory lock already applies on this node meanwhile
+    @Scheduled(fixedDelayString = "${login.lockout-flush-interval-ms:1000}")
+    public void flushLockouts() {
+        while (!pendingLockouts.isEmpty()) {
+            List<PendingLockout> batch = new ArrayList<>();
+            PendingLockout next;
+            while (batch.size() < flushBatchSize && (next = pendingLockouts.poll()) != null) {
+                batch.add(next);
+            }
+            try {
+                userRepository.lockUsers(batch.stream().map(PendingLockout::username).toList(),
+                        LocalDateTime.now().plusHours(lockHours));
+                batch.forEach(lockout -> tokenVersionCache.invalidate(lockout.userId()));
+            } catch (Exception e) {
+                log.warn("Failed to persist {} lockouts, will retry: {}", batch.size(), e.getMessage());
+                pendingLockouts.addAll(batch);
+                return;
+            }
+        }
+    }
+
+    private boolean isLocked(String key) {
+        return usernameBuckets.withEntry(key, entry -> entry.lockedUntilMillis > System.currentTimeMillis());
+    }
+
+    private static String normalise(String username) {
+        return username == null ? "" : username.trim().toLowerCase(Locale.ROOT);
+    }
+}
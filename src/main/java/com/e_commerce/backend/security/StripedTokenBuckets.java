@@ -0,0 +1,87 @@
+package com.e_commerce.backend.security;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Per-key token buckets with lock striping: a key only contends with keys hashed to the same stripe.
+ * Each stripe is a bounded LRU, so a burst of random keys (credential stuffing) can't grow memory without limit.
+ *
+ * @param <E> per-key state; extends {@link Bucket} so callers can attach extra fields
+ */
+public class StripedTokenBuckets<E extends StripedTokenBuckets.Bucket> {
+
+    public static class Bucket {
+        private double tokens;
+        private long lastRefillNanos;
+
+        protected Bucket(double capacity) {
+            this.tokens = capacity;
+            this.lastRefillNanos = System.nanoTime();
+        }
+
+        private boolean tryTake(double capacity, double tokensPerNano) {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * tokensPerNano);
+            lastRefillNanos = now;
+            if (tokens < 1) {
+                return false;
+            }
+            tokens -= 1;
+            return true;
+        }
+    }
+
+    private final Object[] locks;
+    private final LinkedHashMap<String, E>[] maps;
+    private final double capacity;
+    private final double tokensPerNano;
+    private final Function<Double, E> factory;
+
+    @SuppressWarnings("unchecked")
+    public StripedTokenBuckets(int stripes, int maxEntriesPerStripe, double capacity, double refillPerMinute,
+                               Function<Double, E> factory) {
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerMinute / 60_000_000_000d;
+        this.factory = factory;
+        this.locks = new Object[stripes];
+        this.maps = new LinkedHashMap[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new Object();
+            maps[i] = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, E> eldest) {
+                    return size() > maxEntriesPerStripe;
+                }
+            };
+        }
+    }
+
+    /**
+     * Takes one token for {@code key}, returning false when its bucket is empty.
+     */
+    public boolean tryConsume(String key) {
+        int stripe = stripeFor(key);
+        synchronized (locks[stripe]) {
+            Bucket bucket = maps[stripe].computeIfAbsent(key, k -> factory.apply(capacity));
+            return bucket.tryTake(capacity, tokensPerNano);
+        }
+    }
+
+    /**
+     * Applies {@code action} to the state of {@code key} under its stripe lock.
+     */
+    public <R> R withEntry(String key, Function<E, R> action) {
+        int stripe = stripeFor(key);
+        synchronized (locks[stripe]) {
+            return action.apply(maps[stripe].computeIfAbsent(key, k -> factory.apply(capacity)));
+        }
+    }
+
+    private int stripeFor(String key) {
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        return (h & 0x7fffffff) % locks.length;
+    }
+}
@@ -0,0 +1,74 @@
+package com.e_commerce.backend.security;
+
+import com.e_commerce.backend.repositories.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Current token version per user. A token is only accepted while its "ver" claim matches,
+ * so bumping the version (lockout, role change) revokes every token issued before it.
+ * Entries expire after {@code ttl-ms}, which bounds how long another node can keep accepting revoked tokens.
+ */
+@Component
+public class TokenVersionCache {
+
+    private record Entry(int version, long loadedAt) {
+    }
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${jwt.token-version-cache.ttl-ms:60000}")
+    private long ttlMs;
+
+    @Value("${jwt.token-version-cache.max-entries:100000}")
+    private int maxEntries;
+
+    private final ConcurrentHashMap<Long, Entry> versions = new ConcurrentHashMap<>();
+
+    public boolean isCurrent(Long userId, Integer tokenVersion) {
+        if (userId == null || tokenVersion == null) {
+            return false;
+        }
+
+        long now = System.currentTimeMillis();
+        Entry entry = versions.get(userId);
+        if (entry == null || now - entry.loadedAt() > ttlMs) {
+            Integer current = userRepository.findTokenVersionById(userId).orElse(null);
+            if (current == null) {
+                versions.remove(userId);
+                return false;
+            }
+            if (versions.size() >= maxEntries) {
+                versions.clear();
+            }
+            entry = new Entry(current, now);
+            versions.put(userId, entry);
+        }
+        return entry.version() == tokenVersion;
+    }
+
+    public void invalidate(Long userId) {
+        versions.remove(userId);
+    }
+
+    /**
+     * Drops the cached version once the surrounding transaction commits, so the bumped version is what gets reloaded.
+     */
+    public void invalidateAfterCommit(Long userId) {
+        versions.remove(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    versions.remove(userId);
+                }
+            });
+        }
+    }
+}
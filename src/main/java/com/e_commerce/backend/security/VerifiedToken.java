@@ -0,0 +1,81 @@
+package com.e_commerce.backend.security;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Claims of a JWT whose signature and expiry have already been checked.
+ * Built once per request by {@link JwtUtil#verify(String)}; nothing downstream needs to parse the token again.
+ */
+public final class VerifiedToken {
+
+    public static final String REQUEST_ATTRIBUTE = "com.e_commerce.backend.security.VerifiedToken";
+
+    private final String tokenId;
+    private final String username;
+    private final Long userId;
+    private final Integer tokenVersion;
+    private final List<GrantedAuthority> authorities;
+    private final Date issuedAt;
+    private final Date expiration;
+
+    VerifiedToken(Claims claims) {
+        this.tokenId = claims.getId();
+        this.username = claims.getSubject();
+        this.userId = claims.get(JwtUtil.USER_ID_CLAIM, Long.class);
+        this.tokenVersion = claims.get(JwtUtil.TOKEN_VERSION_CLAIM, Integer.class);
+        this.authorities = parseAuthorities(claims.get(JwtUtil.ROLE_CLAIM));
+        this.issuedAt = claims.getIssuedAt();
+        this.expiration = claims.getExpiration();
+    }
+
+    // The role claim holds the serialised authorities, e.g. [{"authority":"ROLE_USER"}]
+    private static List<GrantedAuthority> parseAuthorities(Object roleClaim) {
+        if (!(roleClaim instanceof List<?> roles)) {
+            return Collections.emptyList();
+        }
+        List<GrantedAuthority> parsed = new ArrayList<>(roles.size());
+        for (Object role : roles) {
+            Object authority = role instanceof Map<?, ?> map ? map.get("authority") : role;
+            if (authority != null) {
+                parsed.add(new SimpleGrantedAuthority(authority.toString()));
+            }
+        }
+        return Collections.unmodifiableList(parsed);
+    }
+
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Integer getTokenVersion() {
+        return tokenVersion;
+    }
+
+    public List<GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    public Date getIssuedAt() {
+        return issuedAt == null ? null : new Date(issuedAt.getTime());
+    }
+
+    public Date getExpiration() {
+        return expiration == null ? null : new Date(expiration.getTime());
+    }
+}
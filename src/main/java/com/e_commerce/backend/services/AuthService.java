@@ -8,17 +8,16 @@ import com.e_commerce.backend.models.Role;
 import com.e_commerce.backend.models.User;
 import com.e_commerce.backend.repositories.UserRepository;
 import com.e_commerce.backend.security.JwtUtil;
+import com.e_commerce.backend.security.LoginThrottle;
+import com.e_commerce.backend.security.PasswordHasher;
+import com.e_commerce.backend.security.TokenVersionCache;
+import com.e_commerce.backend.security.VerifiedToken;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
 
 @Service
 public class AuthService {
@@ -27,37 +26,49 @@ public class AuthService {
     private UserRepository userRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHasher passwordHasher;
 
     @Autowired
     private JwtUtil jwtUtil;
 
     @Autowired
-    private AuthenticationManager authenticationManager;
+    private TokenVersionCache tokenVersionCache;
 
-    private static final int MAX_FAILED_ATTEMPTS = 5;
-    private static final int LOCK_TIME_DURATION = 24; // hours
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private LoginThrottle loginThrottle;
+
+    @Autowired
+    private UserAvailabilityService userAvailabilityService;
 
-    @Transactional
     public AuthResponse register(RegisterRequest registerRequest) {
-        // Check if username already exists
-        if (userRepository.existsByUsername(registerRequest.getUsername())) {
+        // Check if username already exists (Bloom filter first, DB only on a possible match)
+        if (!userAvailabilityService.isUsernameAvailable(registerRequest.getUsername())) {
             throw new RuntimeException("Error: Username is already taken!");
         }
 
         // Check if email already exists
-        if (userRepository.existsByEmail(registerRequest.getEmail())) {
+        if (!userAvailabilityService.isEmailAvailable(registerRequest.getEmail())) {
             throw new RuntimeException("Error: Email is already in use!");
         }
 
-        // Create new user
+        // Create new user (hashed on the bcrypt executor, outside of any transaction)
         User user = new User();
         user.setUsername(registerRequest.getUsername());
         user.setEmail(registerRequest.getEmail());
-        user.setPassword(passwordEncoder.encode(registerRequest.getPassword()));
+        user.setPassword(passwordHasher.encode(registerRequest.getPassword()));
         user.setRole(Role.ROLE_USER); // Default role
 
-        User savedUser = userRepository.save(user);
+        User savedUser;
+        try {
+            savedUser = userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            // Lost a race with a concurrent signup; the unique constraints have the final word
+            throw new RuntimeException("Error: Username or email is already in use!");
+        }
+        userAvailabilityService.registered(savedUser.getUsername(), savedUser.getEmail());
 
         // Generate JWT token
         String jwt = jwtUtil.generateToken(savedUser);
@@ -66,9 +77,13 @@ public class AuthService {
         return new AuthResponse(jwt, new UserDTO(savedUser));
     }
 
-    @Transactional
-    public AuthResponse login(LoginRequest loginRequest) {
-        User user = userRepository.findByUsername(loginRequest.getUsername())
+    // Not transactional on purpose: no DB connection is held while waiting for bcrypt
+    public AuthResponse login(LoginRequest loginRequest, String clientIp) {
+        // Rate limits and in-memory lockouts are checked before any DB or bcrypt work
+        loginThrottle.checkAllowed(loginRequest.getUsername(), clientIp);
+
+        // The only read of the user row for this login
+        User user = userRepository.findCachedByUsername(loginRequest.getUsername())
                 .orElseThrow(() -> new BadCredentialsException("Invalid username or password"));
 
         // Check if account is locked
@@ -76,44 +91,49 @@ public class AuthService {
             throw new RuntimeException("Account is locked due to multiple failed login attempts. Please try again later.");
         }
 
-        try {
-            // Authenticate user
-            Authentication authentication = authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(
-                            loginRequest.getUsername(),
-                            loginRequest.getPassword())
-            );
-
-            // Reset failed attempts on successful login
-            if (user.getFailedLoginAttempts() > 0) {
-                resetFailedAttempts(user.getUsername());
-            }
-
-            UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-            String jwt = jwtUtil.generateToken(userDetails);
-
-            // Fetch fresh user data to return
-            User freshUser = userRepository.findByUsername(loginRequest.getUsername())
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-
-            // Return response with token and complete user data
-            return new AuthResponse(jwt, new UserDTO(freshUser));
-
-        } catch (BadCredentialsException e) {
-            // Handle failed login attempt
-            handleFailedLogin(user);
+        if (!user.isEnabled() || !user.isAccountNonExpired()) {
+            throw new BadCredentialsException("Invalid username or password");
+        }
+
+        if (!passwordHasher.matches(loginRequest.getPassword(), user.getPassword())) {
+            // Counted in memory; only a resulting lockout is written (asynchronously)
+            loginThrottle.recordFailure(user.getId(), user.getUsername());
             throw new BadCredentialsException("Invalid username or password");
         }
+
+        loginThrottle.recordSuccess(user.getUsername());
+
+        // Clear counters left over from before failures were tracked in memory
+        if (user.getFailedLoginAttempts() > 0) {
+            resetFailedAttempts(user.getUsername());
+            user.setFailedLoginAttempts(0);
+        }
+
+        // Transparently move the stored hash to the configured bcrypt cost
+        if (passwordHasher.needsRehash(user.getPassword())) {
+            String username = user.getUsername();
+            passwordHasher.rehashAsync(loginRequest.getPassword(),
+                    newHash -> userRepository.updatePassword(username, newHash));
+        }
+
+        String jwt = jwtUtil.generateToken(user);
+
+        // Return response with token and complete user data
+        return new AuthResponse(jwt, new UserDTO(user));
     }
 
     @Transactional
-    public void handleFailedLogin(User user) {
-        int newFailAttempts = user.getFailedLoginAttempts() + 1;
-        userRepository.updateFailedAttempts(user.getUsername(), newFailAttempts, LocalDateTime.now());
+    public UserDTO changeRole(Long userId, Role role) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
 
-        if (newFailAttempts >= MAX_FAILED_ATTEMPTS) {
-            userRepository.lockUser(user.getUsername(), LocalDateTime.now().plusHours(LOCK_TIME_DURATION));
-        }
+        user.setRole(role);
+        // Tokens carry the role, so the old ones must stop working
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        User savedUser = userRepository.save(user);
+        tokenVersionCache.invalidateAfterCommit(userId);
+
+        return new UserDTO(savedUser);
     }
 
     @Transactional
@@ -121,9 +141,11 @@ public class AuthService {
         userRepository.updateFailedAttempts(username, 0, null);
     }
 
-    public AuthResponse logout() {
-        // For stateless JWT, we just return a success message
-        // In a more advanced implementation, you could maintain a blacklist of tokens
+    public AuthResponse logout(VerifiedToken token) {
+        // Revoke the presented token until it would have expired anyway
+        if (token != null) {
+            tokenRevocationService.revoke(token.getTokenId(), token.getExpiration());
+        }
         return new AuthResponse("Logged out successfully");
     }
 }
@@ -11,9 +11,8 @@ import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 public class CartService {
@@ -24,6 +23,12 @@ public class CartService {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private PopularityCounters popularityCounters;
+
+    @Autowired
+    private PromotionEngine promotionEngine;
+
     @Cacheable(value = "cart", key = "#sessionId")
     public CartDTO getCart(String sessionId) {
         List<CartItem> cartItems = cartItemRepository.findBySessionIdOrderByIdDesc(sessionId);
@@ -66,6 +71,7 @@ public class CartService {
         }
 
         cartItemRepository.save(cartItem);
+        popularityCounters.recordAddToCartAfterCommit(product.getId());
 
         return getCart(sessionId);
     }
@@ -104,22 +110,27 @@ public class CartService {
     }
 
     private CartDTO buildCartDTO(List<CartItem> cartItems) {
-        List<CartItemDTO> items = cartItems.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        List<PromotionEngine.Line> lines = new ArrayList<>(cartItems.size());
+        for (CartItem item : cartItems) {
+            Product product = item.getProduct();
+            lines.add(new PromotionEngine.Line(product.getId(), product.getCategory(), product.getPrice(), item.getQuantity()));
+        }
+        PromotionEngine.Pricing pricing = promotionEngine.price(lines);
 
-        BigDecimal totalAmount = cartItems.stream()
-                .map(item -> item.getProduct().getPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        List<CartItemDTO> items = new ArrayList<>(cartItems.size());
+        for (int i = 0; i < cartItems.size(); i++) {
+            items.add(convertToDTO(cartItems.get(i), pricing.lines().get(i)));
+        }
 
         int totalItems = cartItems.stream()
                 .mapToInt(CartItem::getQuantity)
                 .sum();
 
-        return new CartDTO(items, totalAmount, totalItems);
+        return new CartDTO(items, pricing.subtotal(), pricing.discount(), pricing.cartPromotion(),
+                pricing.total(), totalItems);
     }
 
-    private CartItemDTO convertToDTO(CartItem cartItem) {
+    private CartItemDTO convertToDTO(CartItem cartItem, PromotionEngine.PricedLine pricedLine) {
         ProductSummaryDTO productDTO = new ProductSummaryDTO(
                 cartItem.getProduct().getId(),
                 cartItem.getProduct().getName(),
@@ -131,6 +142,7 @@ public class CartService {
                 cartItem.getProduct().getQuantity()
         );
 
-        return new CartItemDTO(cartItem.getId(), productDTO, cartItem.getQuantity());
+        return new CartItemDTO(cartItem.getId(), productDTO, cartItem.getQuantity(),
+                pricedLine.subtotal(), pricedLine.discount(), pricedLine.promotion());
     }
 }
@@ -0,0 +1,105 @@
+package com.e_commerce.backend.services;
+
+import com.e_commerce.backend.cache.CacheInvalidationBus;
+import com.e_commerce.backend.cache.RemoteCacheStore;
+import com.e_commerce.backend.web.EncodedJson;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Catalog version, bumped after every committed product write or stock change.
+ * The number comes from a counter in the shared store, so every node issues the same tag for the same version.
+ * A lost counter is reseeded from the clock, well above the numbers issued under the old one.
+ */
+@Component
+public class CatalogVersion {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogVersion.class);
+
+    private static final String REGION = "catalog-version";
+    private static final String COUNTER_KEY = "catalog-version:counter";
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Autowired
+    private RemoteCacheStore remoteCacheStore;
+
+    // Highest shared version this node has seen; requests read it without a round trip
+    private final AtomicLong global = new AtomicLong();
+
+    @PostConstruct
+    void subscribe() {
+        // Writes on other nodes send the version they reached
+        cacheInvalidationBus.subscribe(REGION, new CacheInvalidationBus.Listener() {
+            @Override
+            public void evicted(String key) {
+                global.accumulateAndGet(Long.parseLong(key), Math::max);
+            }
+
+            @Override
+            public void cleared() {
+                bump();
+            }
+        });
+        // A fresh node starts at a new shared version rather than one issued for an older catalog,
+        // and the running nodes move up to it
+        cacheInvalidationBus.publishEvict(REGION, bump());
+    }
+
+    public long current() {
+        return global.get();
+    }
+
+    // Called inside the writing transaction; the bump happens once it commits
+    public void changed() {
+        CacheInvalidationBus.afterCommit(() -> cacheInvalidationBus.publishEvict(REGION, bump()));
+    }
+
+    private long bump() {
+        try {
+            long version = remoteCacheStore.increment(COUNTER_KEY, System.currentTimeMillis());
+            return global.accumulateAndGet(version, Math::max);
+        } catch (RuntimeException e) {
+            // Still move this node on; peers catch up with the next successful bump
+            log.warn("Could not increment the shared catalog version: {}", e.getMessage());
+            return global.incrementAndGet();
+        }
+    }
+
+    public String etag(long version) {
+        return "\"" + version + "\"";
+    }
+
+    // Orderings that also depend on another counter, e.g. the popularity generation
+    public String rankedEtag(String ranking, long version, long generation) {
+        return "\"" + ranking + "-" + version + "-" + generation + "\"";
+    }
+
+    // If-None-Match may list several tags; weak tags compare equal to their strong form, and the gzip variant's tag
+    // matches the version it was built from. Returns the tag to send back with the 304, or null for no match.
+    public static String match(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return null;
+        }
+        String gzipTag = EncodedJson.gzipTag(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag) || tag.equals("*")) {
+                return etag;
+            }
+            if (tag.equals(gzipTag)) {
+                return gzipTag;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,82 @@
+package com.e_commerce.backend.services;
+
+import com.e_commerce.backend.repositories.ArchivedOrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves finished orders older than {@code orders.archive.after-months} with their items and payments
+ * into the archive tables, so the hot order tables and their indexes stay small.
+ */
+@Service
+public class OrderArchivalService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderArchivalService.class);
+
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${orders.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${orders.archive.after-months:12}")
+    private int afterMonths;
+
+    @Value("${orders.archive.batch-size:500}")
+    private int batchSize;
+
+    @Value("${orders.archive.max-batches-per-run:200}")
+    private int maxBatchesPerRun;
+
+    @Scheduled(cron = "${orders.archive.cron:0 30 3 * * *}")
+    public void scheduledArchive() {
+        if (enabled) {
+            int archived = archiveOldOrders();
+            if (archived > 0) {
+                log.info("Archived {} orders older than {} months", archived, afterMonths);
+            }
+        }
+    }
+
+    public int archiveOldOrders() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMonths(afterMonths);
+        int total = 0;
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            // One short transaction per chunk keeps locks and WAL bursts small
+            Integer moved = transactionTemplate.execute(status -> archiveChunk(cutoff));
+            if (moved == null || moved == 0) {
+                break;
+            }
+            total += moved;
+            if (moved < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    private int archiveChunk(LocalDateTime cutoff) {
+        List<Long> ids = archivedOrderRepository.lockArchivableOrderIds(cutoff, batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        archivedOrderRepository.copyOrders(ids);
+        archivedOrderRepository.copyOrderItems(ids);
+        archivedOrderRepository.copyPayments(ids);
+        archivedOrderRepository.deletePayments(ids);
+        archivedOrderRepository.deleteOrderItems(ids);
+        archivedOrderRepository.deleteOrders(ids);
+        return ids.size();
+    }
+}
@@ -0,0 +1,57 @@
+package com.e_commerce.backend.services;
+
+import com.e_commerce.backend.repositories.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Settles orders left PENDING when the gateway gave no answer (timeout, provider error) or the node died
+ * mid-checkout. Orders are only picked up once they are older than {@code orders.reconcile.after-seconds},
+ * which must comfortably exceed the longest possible charge including retries, so a checkout that is still
+ * waiting on the gateway is never settled underneath it.
+ */
+@Service
+public class OrderReconciliationService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderReconciliationService.class);
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Value("${orders.reconcile.after-seconds:600}")
+    private long afterSeconds;
+
+    @Value("${orders.reconcile.batch-size:100}")
+    private int batchSize;
+
+    @Scheduled(initialDelayString = "${orders.reconcile.interval-ms:60000}",
+            fixedDelayString = "${orders.reconcile.interval-ms:60000}")
+    public void reconcileStalePendingOrders() {
+        LocalDateTime cutoff = LocalDateTime.now().minusSeconds(afterSeconds);
+        List<Long> orderIds = orderRepository.findPendingIdsBefore(cutoff, PageRequest.of(0, batchSize));
+        int settled = 0;
+        for (Long orderId : orderIds) {
+            try {
+                paymentService.reconcilePendingOrder(orderId);
+                settled++;
+            } catch (RuntimeException e) {
+                // Stays PENDING and is retried on the next run
+                log.warn("Could not reconcile order {}: {}", orderId, e.getMessage());
+            }
+        }
+        if (settled > 0) {
+            log.info("Reconciled {} of {} stale pending orders", settled, orderIds.size());
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.e_commerce.backend.services;
+
+import com.e_commerce.backend.models.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Destination the outbox relay hands events to (message broker, file, memory).
+ * Delivery is at-least-once: if publish throws, the whole batch is retried on the next run.
+ */
+public interface OutboxSink {
+
+    void publish(List<OutboxEvent> events) throws Exception;
+}
@@ -0,0 +1,21 @@
+package com.e_commerce.backend.services;
+
+import com.e_commerce.backend.dto.GatewayChargeRequest;
+import com.e_commerce.backend.dto.GatewayChargeResult;
+
+import java.util.Optional;
+
+/**
+ * Charges a card with an external payment provider.
+ * Implementations may block, so callers must never invoke this inside a DB transaction.
+ */
+public interface PaymentGateway {
+
+    GatewayChargeResult charge(GatewayChargeRequest request);
+
+    /**
+     * The provider's answer for an earlier charge with this idempotency key, or empty if it never processed one.
+     * Used to settle orders whose charge call ended without an answer.
+     */
+    Optional<GatewayChargeResult> findCharge(String idempotencyKey);
+}
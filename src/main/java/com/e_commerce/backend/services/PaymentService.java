@@ -1,20 +1,36 @@
 package com.e_commerce.backend.services;
 
+import com.e_commerce.backend.cache.EntityCacheInvalidator;
+import com.e_commerce.backend.dto.GatewayChargeRequest;
+import com.e_commerce.backend.dto.GatewayChargeResult;
 import com.e_commerce.backend.dto.OrderDTO;
 import com.e_commerce.backend.dto.PaymentRequest;
 import com.e_commerce.backend.dto.ProductSummaryDTO;
+import com.e_commerce.backend.exception.CheckoutConflictException;
+import com.e_commerce.backend.exception.PaymentGatewayException;
 import com.e_commerce.backend.models.*;
+import com.e_commerce.backend.money.Money;
 import com.e_commerce.backend.repositories.*;
-import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 @Service
 public class PaymentService {
 
+    private static final Logger log = LoggerFactory.getLogger(PaymentService.class);
+
     @Autowired
     private PaymentRepository paymentRepository;
 
@@ -27,89 +43,316 @@ public class PaymentService {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private CartService cartService;
+
     @Autowired
     private CartItemRepository cartItemRepository;
 
-    @Transactional
+    @Autowired
+    private PromotionEngine promotionEngine;
+
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Autowired
+    private ArchivedOrderItemRepository archivedOrderItemRepository;
+
+    @Autowired
+    private ArchivedPaymentRepository archivedPaymentRepository;
+
+    @Autowired
+    private PaymentGateway paymentGateway;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private SalesAnalyticsService salesAnalyticsService;
+
+    @Autowired
+    private EntityCacheInvalidator entityCacheInvalidator;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private ProductUpdateStream productUpdateStream;
+
+    @Autowired
+    private RelatedProductsService relatedProductsService;
+
     public OrderDTO processPayment(PaymentRequest request) {
-        // Validate cart items
-        if (request.getCartItems() == null || request.getCartItems().isEmpty()) {
+        // Reserve stock, price the cart and record the order as PENDING in its own short transaction
+        Order pendingOrder = transactionTemplate.execute(status -> createPendingOrder(request));
+
+        // Charge the card outside of any transaction so a slow gateway never pins a DB connection
+        String cardNumber = request.getCardNumber().replaceAll("\\s", "");
+        GatewayChargeResult result;
+        try {
+            result = paymentGateway.charge(new GatewayChargeRequest(
+                    idempotencyKey(pendingOrder.getId()),
+                    pendingOrder.getTotalAmount(),
+                    cardNumber,
+                    request.getCardName()));
+        } catch (PaymentGatewayException e) {
+            if (!e.isOutcomeUnknown()) {
+                transactionTemplate.executeWithoutResult(status -> failOrder(pendingOrder.getId()));
+                throw e;
+            }
+            // The provider may still have charged the card, so keep the stock reserved and let
+            // reconcilePendingOrder settle the order from the provider's record of its idempotency key
+            log.warn("Payment for order {} has no answer yet, leaving it PENDING: {}", pendingOrder.getId(), e.getMessage());
+            throw new PaymentGatewayException("Payment could not be confirmed yet; order " + pendingOrder.getId()
+                    + " will be completed or cancelled shortly", false, true, e);
+        }
+
+        if (!result.isApproved()) {
+            transactionTemplate.executeWithoutResult(status -> failOrder(pendingOrder.getId()));
+            throw new IllegalArgumentException("Payment declined: " + result.getDeclineReason());
+        }
+
+        return transactionTemplate.execute(status -> completeOrder(pendingOrder.getId(), result.getTransactionId()));
+    }
+
+    /**
+     * Settles an order left PENDING by a charge that ended without an answer: completes it if the provider
+     * approved the charge under the order's idempotency key, otherwise fails it and releases the stock.
+     * Only call this once any charge for the order must have finished. Gateway errors propagate, so the
+     * order stays PENDING for the next attempt.
+     */
+    public void reconcilePendingOrder(Long orderId) {
+        Optional<GatewayChargeResult> charge = paymentGateway.findCharge(idempotencyKey(orderId));
+        if (charge.isPresent() && charge.get().isApproved()) {
+            transactionTemplate.execute(status -> completeOrder(orderId, charge.get().getTransactionId()));
+            log.info("Reconciled order {}: charge {} was approved", orderId, charge.get().getTransactionId());
+        } else {
+            transactionTemplate.executeWithoutResult(status -> failOrder(orderId));
+            log.info("Reconciled order {}: {}", orderId, charge.isPresent() ? "charge was declined" : "no charge found");
+        }
+    }
+
+    private static String idempotencyKey(Long orderId) {
+        return "order-" + orderId;
+    }
+
+    private Order createPendingOrder(PaymentRequest request) {
+        // Quantities come from the session's cart, prices from the product rows locked below
+        Map<Integer, Integer> quantities = new TreeMap<>();
+        for (Object[] row : cartItemRepository.lockProductQuantitiesBySessionId(request.getSessionId())) {
+            quantities.put((Integer) row[0], (Integer) row[1]);
+        }
+        if (quantities.isEmpty()) {
             throw new IllegalArgumentException("Cart is empty");
         }
+        // The cart is only cleared once its order completes; a double submit or a retry must not order it again
+        Order awaitingPayment = orderRepository.findFirstBySessionIdAndStatus(request.getSessionId(), "PENDING").orElse(null);
+        if (awaitingPayment != null) {
+            throw new CheckoutConflictException("Order " + awaitingPayment.getId()
+                    + " for this cart is still awaiting payment confirmation", awaitingPayment.getId(), null);
+        }
+
+        // One locking read is both the stock check and the price snapshot the order is charged at
+        List<Product> products = productRepository.findAllByIdForUpdate(quantities.keySet());
+        if (products.size() != quantities.size()) {
+            throw new IllegalArgumentException("Some products in the cart are no longer available");
+        }
+        List<PromotionEngine.Line> lines = new ArrayList<>(products.size());
+        for (Product product : products) {
+            int quantity = quantities.get(product.getId());
+            if (!product.isAvailable()) {
+                throw new IllegalArgumentException("Product is not available: " + product.getName());
+            }
+            if (product.getQuantity() < quantity) {
+                throw new IllegalArgumentException("Insufficient stock for product: " + product.getName());
+            }
+            lines.add(new PromotionEngine.Line(product.getId(), product.getCategory(), product.getPrice(), quantity));
+        }
+        PromotionEngine.Pricing pricing = promotionEngine.price(lines);
+        if (request.getExpectedTotal() != null && !request.getExpectedTotal().equals(pricing.total())) {
+            throw new CheckoutConflictException("Cart total changed from " + request.getExpectedTotal() + " to "
+                    + pricing.total() + "; please review your cart", null, pricing.total());
+        }
 
         // Create the order
         Order order = new Order();
         order.setSessionId(request.getSessionId());
-        order.setTotalAmount(request.getAmount());
+        order.setTotalAmount(pricing.total());
         order.setStatus("PENDING");
         order.setShippingAddress(request.getShippingAddress());
 
         // Save the order first to get the ID
         Order savedOrder = orderRepository.save(order);
 
-        // Create order items from cart items
-        for (PaymentRequest.CartItemForOrder cartItem : request.getCartItems()) {
-            Product product = productRepository.findById(cartItem.getProductId())
-                    .orElseThrow(() -> new RuntimeException("Product not found: " + cartItem.getProductId()));
-
-            // Check stock availability
-            if (product.getQuantity() < cartItem.getQuantity()) {
-                throw new IllegalArgumentException("Insufficient stock for product: " + product.getName());
-            }
+        // Items carry the list price plus their share of every discount, so they add up to the order total
+        List<Money> discounts = pricing.allocatedDiscounts();
+        for (int i = 0; i < products.size(); i++) {
+            Product product = products.get(i);
+            int quantity = quantities.get(product.getId());
 
             OrderItem orderItem = new OrderItem();
             orderItem.setOrder(savedOrder);
             orderItem.setProduct(product);
-            orderItem.setQuantity(cartItem.getQuantity());
-            orderItem.setPrice(cartItem.getPrice());
+            orderItem.setQuantity(quantity);
+            orderItem.setPrice(product.getPrice());
+            orderItem.setDiscount(discounts.get(i));
 
             orderItemRepository.save(orderItem);
 
-            // Update product quantity
-            product.setQuantity(product.getQuantity() - cartItem.getQuantity());
+            // Reserve the stock until the gateway answers
+            product.setQuantity(product.getQuantity() - quantity);
             productRepository.save(product);
+            recordInventoryChange(product, -quantity, "ORDER_RESERVED", savedOrder.getId());
         }
 
-        // Create the payment record
-        Payment payment = new Payment();
-        payment.setOrderId(savedOrder.getId());
-        payment.setAmount(request.getAmount());
-        payment.setCardholderName(request.getCardName());
-        // Only store last 4 digits of card for security
-        String cardNumber = request.getCardNumber().replaceAll("\\s", "");
-        payment.setCardLastFour(cardNumber.length() >= 4 ?
-                cardNumber.substring(cardNumber.length() - 4) : cardNumber);
-        payment.setPaymentStatus("COMPLETED");
+        // Recorded before the charge, so the card details are kept however the order is settled
+        paymentRepository.save(buildPayment(savedOrder, request));
+
+        return savedOrder;
+    }
 
+    private OrderDTO completeOrder(Long orderId, String transactionId) {
+        // Locked so the checkout and the reconciler cannot both settle the order
+        Order order = orderRepository.findByIdForUpdate(orderId)
+                .orElseThrow(() -> new RuntimeException("Order not found"));
+        Payment payment = paymentFor(order);
+        if ("COMPLETED".equals(order.getStatus())) {
+            return convertToOrderDTO(order, payment);
+        }
+        if (!"PENDING".equals(order.getStatus())) {
+            log.error("Order {} is {} but charge {} was approved; the charge must be refunded",
+                    orderId, order.getStatus(), transactionId);
+            throw new IllegalStateException("Order " + orderId + " is " + order.getStatus()
+                    + " and can no longer be completed");
+        }
+
+        payment.setPaymentStatus("COMPLETED");
+        payment.setTransactionId(transactionId);
         Payment savedPayment = paymentRepository.save(payment);
 
         // Update order status to COMPLETED
-        savedOrder.setStatus("COMPLETED");
-        orderRepository.save(savedOrder);
+        order.setStatus("COMPLETED");
+        Order savedOrder = orderRepository.save(order);
 
-        // Clear the user's cart
-        if (request.getSessionId() != null) {
-            cartItemRepository.deleteBySessionId(request.getSessionId());
+        // Clear the user's cart (also evicts the cached cart on every node)
+        if (order.getSessionId() != null) {
+            cartService.clearCart(order.getSessionId());
         }
 
+        List<OrderItem> orderItems = orderItemRepository.findByOrderId(orderId);
+        salesAnalyticsService.recordCompletedOrder(savedOrder, orderItems);
+        relatedProductsService.recordOrderAfterCommit(orderItems);
+
+        OrderDTO orderDTO = convertToOrderDTO(savedOrder, savedPayment, orderItems);
+        outboxService.record("ORDER", savedOrder.getId(), "OrderCompleted", orderDTO);
+
         // Return the order DTO
-        return convertToOrderDTO(savedOrder, savedPayment);
+        return orderDTO;
+    }
+
+    private void failOrder(Long orderId) {
+        Order order = orderRepository.findByIdForUpdate(orderId)
+                .orElseThrow(() -> new RuntimeException("Order not found"));
+        if (!"PENDING".equals(order.getStatus())) {
+            // Already settled, and its stock already released if it failed
+            return;
+        }
+
+        // Release the reserved stock
+        List<OrderItem> items = orderItemRepository.findByOrderId(orderId).stream()
+                .sorted(Comparator.comparingInt((OrderItem item) -> item.getProduct().getId()))
+                .toList();
+        for (OrderItem item : items) {
+            Product product = productRepository.findByIdForUpdate(item.getProduct().getId())
+                    .orElseThrow(() -> new RuntimeException("Product not found: " + item.getProduct().getId()));
+            product.setQuantity(product.getQuantity() + item.getQuantity());
+            productRepository.save(product);
+            recordInventoryChange(product, item.getQuantity(), "ORDER_RELEASED", orderId);
+        }
+
+        Payment payment = paymentFor(order);
+        payment.setPaymentStatus("FAILED");
+        paymentRepository.save(payment);
+
+        order.setStatus("FAILED");
+        orderRepository.save(order);
+
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("orderId", orderId);
+        payload.put("sessionId", order.getSessionId());
+        payload.put("status", order.getStatus());
+        outboxService.record("ORDER", orderId, "OrderFailed", payload);
+    }
+
+    private void recordInventoryChange(Product product, int delta, String reason, Long orderId) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("productId", product.getId());
+        payload.put("delta", delta);
+        payload.put("quantity", product.getQuantity());
+        payload.put("reason", reason);
+        payload.put("orderId", orderId);
+        outboxService.record("PRODUCT", product.getId(), "InventoryChanged", payload);
+        entityCacheInvalidator.productChanged(product.getId());
+        catalogVersion.changed();
+        productUpdateStream.publishAfterCommit(product);
+    }
+
+    private Payment buildPayment(Order order, PaymentRequest request) {
+        Payment payment = new Payment();
+        payment.setOrderId(order.getId());
+        payment.setAmount(order.getTotalAmount());
+        payment.setCardholderName(request.getCardName());
+        // Only store last 4 digits of card for security
+        String cardNumber = request.getCardNumber().replaceAll("\\s", "");
+        payment.setCardLastFour(cardNumber.length() >= 4 ?
+                cardNumber.substring(cardNumber.length() - 4) : cardNumber);
+        payment.setPaymentStatus("PENDING");
+        return payment;
+    }
+
+    private Payment paymentFor(Order order) {
+        List<Payment> payments = paymentRepository.findByOrderId(order.getId());
+        if (!payments.isEmpty()) {
+            return payments.get(0);
+        }
+        // Orders placed before the payment row was written up front
+        Payment payment = new Payment();
+        payment.setOrderId(order.getId());
+        payment.setAmount(order.getTotalAmount());
+        return payment;
     }
 
     public List<OrderDTO> getOrderHistory(String sessionId) {
         List<Order> orders = orderRepository.findBySessionIdOrderByOrderDateDesc(sessionId);
-        return orders.stream()
+        List<OrderDTO> history = orders.stream()
                 .map(order -> {
                     List<Payment> payments = paymentRepository.findByOrderId(order.getId());
                     Payment payment = payments.isEmpty() ? null : payments.get(0);
                     return convertToOrderDTO(order, payment);
                 })
                 .collect(Collectors.toList());
+
+        // Archived orders are always older than live ones, so they go after them
+        archivedOrderRepository.findBySessionIdOrderByOrderDateDesc(sessionId).stream()
+                .map(this::convertArchivedToOrderDTO)
+                .forEach(history::add);
+        return history;
     }
 
     public OrderDTO getOrderById(Long orderId, String sessionId) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new RuntimeException("Order not found"));
+        Order order = orderRepository.findById(orderId).orElse(null);
+        if (order == null) {
+            // Fall through to the archive for orders moved out of the hot tables
+            ArchivedOrder archivedOrder = archivedOrderRepository.findById(orderId)
+                    .orElseThrow(() -> new RuntimeException("Order not found"));
+            if (!archivedOrder.getSessionId().equals(sessionId)) {
+                throw new RuntimeException("Unauthorized access to order");
+            }
+            return convertArchivedToOrderDTO(archivedOrder);
+        }
 
         // Verify order belongs to this session
         if (!order.getSessionId().equals(sessionId)) {
@@ -123,6 +366,10 @@ public class PaymentService {
     }
 
     private OrderDTO convertToOrderDTO(Order order, Payment payment) {
+        return convertToOrderDTO(order, payment, orderItemRepository.findByOrderId(order.getId()));
+    }
+
+    private OrderDTO convertToOrderDTO(Order order, Payment payment, List<OrderItem> orderItems) {
         OrderDTO dto = new OrderDTO();
         dto.setId(order.getId());
         dto.setSessionId(order.getSessionId());
@@ -132,27 +379,14 @@ public class PaymentService {
         dto.setShippingAddress(order.getShippingAddress());
 
         // Convert order items
-        List<OrderItem> orderItems = orderItemRepository.findByOrderId(order.getId());
         List<OrderDTO.OrderItemDTO> itemDTOs = orderItems.stream()
-                .map(item -> {
-                    ProductSummaryDTO productDTO = new ProductSummaryDTO(
-                            item.getProduct().getId(),
-                            item.getProduct().getName(),
-                            item.getProduct().getDescription(),
-                            item.getProduct().getPrice(),
-                            item.getProduct().getCategory(),
-                            "/api/product/" + item.getProduct().getId() + "/image",
-                            item.getProduct().isAvailable(),
-                            item.getProduct().getQuantity()
-                    );
-
-                    return new OrderDTO.OrderItemDTO(
-                            item.getId(),
-                            productDTO,
-                            item.getQuantity(),
-                            item.getPrice()
-                    );
-                })
+                .map(item -> new OrderDTO.OrderItemDTO(
+                        item.getId(),
+                        convertToProductSummary(item.getProduct()),
+                        item.getQuantity(),
+                        item.getPrice(),
+                        item.getDiscount()
+                ))
                 .collect(Collectors.toList());
 
         dto.setItems(itemDTOs);
@@ -172,5 +406,52 @@ public class PaymentService {
 
         return dto;
     }
-}
 
+    private OrderDTO convertArchivedToOrderDTO(ArchivedOrder order) {
+        OrderDTO dto = new OrderDTO();
+        dto.setId(order.getId());
+        dto.setSessionId(order.getSessionId());
+        dto.setTotalAmount(order.getTotalAmount());
+        dto.setOrderDate(order.getOrderDate());
+        dto.setStatus(order.getStatus());
+        dto.setShippingAddress(order.getShippingAddress());
+
+        dto.setItems(archivedOrderItemRepository.findByOrderId(order.getId()).stream()
+                .map(item -> new OrderDTO.OrderItemDTO(
+                        item.getId(),
+                        convertToProductSummary(item.getProduct()),
+                        item.getQuantity(),
+                        item.getPrice(),
+                        item.getDiscount()
+                ))
+                .collect(Collectors.toList()));
+
+        List<ArchivedPayment> payments = archivedPaymentRepository.findByOrderId(order.getId());
+        if (!payments.isEmpty()) {
+            ArchivedPayment payment = payments.get(0);
+            dto.setPayment(new OrderDTO.PaymentDTO(
+                    payment.getId(),
+                    payment.getAmount(),
+                    payment.getPaymentStatus(),
+                    payment.getPaymentDate(),
+                    payment.getCardLastFour(),
+                    payment.getCardholderName()
+            ));
+        }
+
+        return dto;
+    }
+
+    private ProductSummaryDTO convertToProductSummary(Product product) {
+        return new ProductSummaryDTO(
+                product.getId(),
+                product.getName(),
+                product.getDescription(),
+                product.getPrice(),
+                product.getCategory(),
+                "/api/product/" + product.getId() + "/image",
+                product.isAvailable(),
+                product.getQuantity()
+        );
+    }
+}
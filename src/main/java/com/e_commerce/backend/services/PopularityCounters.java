@@ -0,0 +1,132 @@
+package com.e_commerce.backend.services;
+
+import com.e_commerce.backend.cache.CacheInvalidationBus;
+import com.e_commerce.backend.repositories.ProductPopularityBatchRepository.CountDelta;
+import com.e_commerce.backend.repositories.ProductPopularityRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Product view and add-to-cart counts. Hits only bump striped LongAdders; a scheduled flush writes the
+ * deltas since the last flush as one batch of additive upserts and reloads the cluster-wide totals.
+ * Popularity = totals from the table + this node's unflushed hits.
+ */
+@Service
+public class PopularityCounters {
+
+    private static final Logger log = LoggerFactory.getLogger(PopularityCounters.class);
+
+    private static final class Counters {
+        final LongAdder views = new LongAdder();
+        final LongAdder addToCart = new LongAdder();
+        // Only touched by the flush; the adders are never reset, so no concurrent hit is lost
+        long flushedViews;
+        long flushedAddToCart;
+    }
+
+    private record Totals(long views, long addToCart) {
+    }
+
+    @Autowired
+    private ProductPopularityRepository productPopularityRepository;
+
+    @Value("${popularity.add-to-cart-weight:5}")
+    private long addToCartWeight;
+
+    private final Map<Integer, Counters> counters = new ConcurrentHashMap<>();
+    private volatile Map<Integer, Totals> totals = Map.of();
+    private volatile long generation;
+
+    @PostConstruct
+    void init() {
+        reloadTotals(false);
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    public void recordView(int productId) {
+        counters.computeIfAbsent(productId, id -> new Counters()).views.increment();
+    }
+
+    // Called inside the cart transaction
+    public void recordAddToCartAfterCommit(int productId) {
+        CacheInvalidationBus.afterCommit(() ->
+                counters.computeIfAbsent(productId, id -> new Counters()).addToCart.increment());
+    }
+
+    public long score(int productId) {
+        Totals flushed = totals.get(productId);
+        long views = flushed != null ? flushed.views() : 0;
+        long addToCart = flushed != null ? flushed.addToCart() : 0;
+        Counters local = counters.get(productId);
+        if (local != null) {
+            views += local.views.sum() - local.flushedViews;
+            addToCart += local.addToCart.sum() - local.flushedAddToCart;
+        }
+        return views + addToCartWeight * addToCart;
+    }
+
+    // Changes when a flush writes this node's hits or finds new totals from other nodes; lets callers cache
+    // anything ordered by popularity until then
+    public long getGeneration() {
+        return generation;
+    }
+
+    @Scheduled(initialDelayString = "${popularity.flush-interval-ms:30000}",
+            fixedDelayString = "${popularity.flush-interval-ms:30000}")
+    public synchronized void flush() {
+        List<CountDelta> deltas = new ArrayList<>();
+        Map<Integer, long[]> sums = new HashMap<>();
+        counters.forEach((productId, c) -> {
+            long views = c.views.sum();
+            long addToCart = c.addToCart.sum();
+            if (views != c.flushedViews || addToCart != c.flushedAddToCart) {
+                deltas.add(new CountDelta(productId, views - c.flushedViews, addToCart - c.flushedAddToCart));
+                sums.put(productId, new long[]{views, addToCart});
+            }
+        });
+        if (!deltas.isEmpty()) {
+            try {
+                productPopularityRepository.addCounts(deltas);
+            } catch (RuntimeException e) {
+                // Deltas stay pending and go out with the next flush
+                log.warn("Popularity flush of {} products failed: {}", deltas.size(), e.getMessage());
+                return;
+            }
+            sums.forEach((productId, sum) -> {
+                Counters c = counters.get(productId);
+                c.flushedViews = sum[0];
+                c.flushedAddToCart = sum[1];
+            });
+        }
+        reloadTotals(!deltas.isEmpty());
+    }
+
+    private void reloadTotals(boolean wrote) {
+        Map<Integer, Totals> loaded = new HashMap<>();
+        for (Object[] row : productPopularityRepository.findAllCounts()) {
+            loaded.put((Integer) row[0], new Totals((Long) row[1], (Long) row[2]));
+        }
+        // An idle catalog keeps its generation, so ETags and cached rankings stay valid between flushes
+        if (wrote || !loaded.equals(totals)) {
+            totals = loaded;
+            generation++;
+        }
+    }
+}
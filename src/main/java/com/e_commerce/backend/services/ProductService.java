@@ -1,13 +1,43 @@
 package com.e_commerce.backend.services;
 
+import com.e_commerce.backend.cache.CacheInvalidationBus;
+import com.e_commerce.backend.cache.EntityCacheInvalidator;
+import com.e_commerce.backend.cache.SingleFlight;
+import com.e_commerce.backend.dto.ProductBatchResponse;
+import com.e_commerce.backend.dto.ProductSummaryDTO;
 import com.e_commerce.backend.models.Product;
+import com.e_commerce.backend.models.ProductImage;
+import com.e_commerce.backend.repositories.ProductImageRepository;
 import com.e_commerce.backend.repositories.ProductRepository;
+import com.e_commerce.backend.web.EncodedJson;
+import com.e_commerce.backend.web.ImageTypes;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.BufferedInputStream;
 import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Service
 public class ProductService {
@@ -15,21 +45,187 @@ public class ProductService {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private ProductImageRepository productImageRepository;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private EntityCacheInvalidator entityCacheInvalidator;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProductUpdateStream productUpdateStream;
+
+    @Autowired
+    private ProductSuggestService productSuggestService;
+
+    @Autowired
+    private PopularityCounters popularityCounters;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Value("${catalog.read-cache.fresh-seconds:5}")
+    private long catalogFreshSeconds;
+
+    @Value("${catalog.read-cache.stale-seconds:60}")
+    private long catalogStaleSeconds;
+
+    @Value("${catalog.read-cache.max-entries:1000}")
+    private long catalogMaxEntries;
+
+    @Value("${catalog.batch.max-ids:200}")
+    private int maxBatchIds;
+
+    @Value("${product.image.max-bytes:5242880}")
+    private long maxImageBytes;
+
+    private static final int IMAGE_BUFFER_BYTES = 8192;
+
+    private static final String CATALOG_REGION = "catalog";
+    private static final String CART_CACHE = "cart";
+    private static final String ALL_PRODUCTS_KEY = "all";
+    private static final String SEARCH_KEY_PREFIX = "search:";
+
+    // Concurrent misses for the same product share one findById
+    private final SingleFlight<Integer, Optional<Product>> productLoads = new SingleFlight<>();
+
+    private ExecutorService catalogRefreshExecutor;
+
+    /**
+     * Immutable listing or search result: the catalog version read before it was loaded, the products, and the
+     * response pre-encoded as JSON. The full listing also keeps each product's encoding for the single-product endpoint.
+     */
+    public record CatalogRead(long version, List<Product> products, EncodedJson body,
+                              Map<Integer, EncodedJson> productBodies) {
+    }
+
+    // The full listing ordered by popularity, valid for one listing snapshot and one counter generation
+    public record PopularRead(CatalogRead read, long generation) {
+    }
+
+    private volatile PopularRead popularRead;
+
+    // Listing and search results: served fresh for a few seconds, then served stale while one background refresh runs
+    private LoadingCache<String, CatalogRead> catalogReads;
+
+    @PostConstruct
+    void initCatalogReads() {
+        catalogRefreshExecutor = Executors.newFixedThreadPool(2,
+                Thread.ofPlatform().name("catalog-refresh-", 0).daemon().factory());
+        catalogReads = Caffeine.newBuilder()
+                .maximumSize(catalogMaxEntries)
+                .refreshAfterWrite(Duration.ofSeconds(catalogFreshSeconds))
+                .expireAfterWrite(Duration.ofSeconds(catalogFreshSeconds + catalogStaleSeconds))
+                .executor(catalogRefreshExecutor)
+                .build(this::loadCatalogRead);
+        cacheInvalidationBus.subscribe(CATALOG_REGION, new CacheInvalidationBus.Listener() {
+            @Override
+            public void evicted(String key) {
+                catalogReads.invalidateAll();
+            }
+
+            @Override
+            public void cleared() {
+                catalogReads.invalidateAll();
+            }
+        });
+    }
+
+    @PreDestroy
+    void shutdownCatalogReads() {
+        catalogRefreshExecutor.shutdownNow();
+    }
+
     public List<Product> getAllofProducts(){
-        return productRepository.findAll();
+        return getCatalogListing().products();
+    }
+
+    public CatalogRead getCatalogListing() {
+        return catalogReads.get(ALL_PRODUCTS_KEY);
+    }
+
+    // Re-sorted only when the listing snapshot or the popularity generation moves, not per request
+    public PopularRead getPopularListing() {
+        CatalogRead listing = getCatalogListing();
+        long generation = popularityCounters.getGeneration();
+        PopularRead cached = popularRead;
+        if (cached != null && cached.generation() == generation && cached.read().version() == listing.version()
+                && cached.read().productBodies() == listing.productBodies()) {
+            return cached;
+        }
+        Map<Integer, Long> scores = new HashMap<>();
+        for (Product product : listing.products()) {
+            scores.put(product.getId(), popularityCounters.score(product.getId()));
+        }
+        List<Product> ranked = listing.products().stream()
+                .sorted(Comparator.comparingLong((Product p) -> scores.get(p.getId())).reversed()
+                        .thenComparingInt(Product::getId))
+                .toList();
+        List<EncodedJson> elements = new ArrayList<>(ranked.size());
+        for (Product product : ranked) {
+            elements.add(listing.productBodies().get(product.getId()));
+        }
+        PopularRead result = new PopularRead(
+                new CatalogRead(listing.version(), ranked, EncodedJson.array(elements), listing.productBodies()),
+                generation);
+        popularRead = result;
+        return result;
     }
 
     public Product getProductById(int id){
-        return productRepository.findById(id).get();
+        return productLoads.load(id, () -> productRepository.findById(id)).get();
+    }
+
+    public ProductBatchResponse getProductSummaries(List<Integer> ids) {
+        List<Integer> distinctIds = ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (distinctIds.size() > maxBatchIds) {
+            throw new IllegalArgumentException("At most " + maxBatchIds + " product ids per request");
+        }
+        List<Product> loaded = distinctIds.isEmpty() ? List.of() : productRepository.findAllByIdCached(distinctIds);
+        List<ProductSummaryDTO> products = new ArrayList<>(distinctIds.size());
+        List<Integer> missingIds = new ArrayList<>();
+        for (int i = 0; i < distinctIds.size(); i++) {
+            Product product = loaded.get(i);
+            if (product != null) {
+                products.add(ProductSummaryDTO.of(product));
+            } else {
+                missingIds.add(distinctIds.get(i));
+            }
+        }
+        return new ProductBatchResponse(products, missingIds);
     }
 
+    public byte[] getProductImageData(int id) {
+        return productImageRepository.findById(id).map(ProductImage::getImageData).orElse(null);
+    }
+
+    @Transactional
     public Product addProduct(Product product, MultipartFile productImage) throws IOException {
-        product.setImageName(productImage.getOriginalFilename());
-        product.setImageType(productImage.getContentType());
-        product.setImageData(productImage.getBytes());
-       return productRepository.save(product);
+        if (productImage == null || productImage.isEmpty()) {
+            throw new IllegalArgumentException("Product image is required");
+        }
+        try (BufferedInputStream image = openImage(productImage)) {
+            product.setImageName(productImage.getOriginalFilename());
+            product.setImageType(sniffImageType(image));
+            Product savedProduct = productRepository.save(product);
+            productImageRepository.saveImage(savedProduct.getId(), image, productImage.getSize());
+            recordProductEvent(savedProduct, "ProductCreated");
+            return savedProduct;
+        }
     }
 
+    @Transactional
     public Product updateProductbyID(int id, Product product, MultipartFile productImage) throws IOException {
         // 1️⃣ Find existing product by ID
         Product existingProduct = productRepository.findById(id).orElse(null);
@@ -38,27 +234,126 @@ public class ProductService {
         }
 
         // 2️⃣ Update fields
+        boolean repriced = !Objects.equals(existingProduct.getPrice(), product.getPrice())
+                || !Objects.equals(existingProduct.getCategory(), product.getCategory());
         existingProduct.setName(product.getName());
         existingProduct.setDescription(product.getDescription());
         existingProduct.setPrice(product.getPrice());
         existingProduct.setCategory(product.getCategory());
 
-        existingProduct.setImageData(productImage.getBytes());
-        existingProduct.setImageName(productImage.getOriginalFilename());
-        existingProduct.setImageType(productImage.getContentType());
-
+        // 3️⃣ Replace the image only when a new one was sent; otherwise the stored bytes are not touched
+        if (productImage != null && !productImage.isEmpty()) {
+            try (BufferedInputStream image = openImage(productImage)) {
+                existingProduct.setImageName(productImage.getOriginalFilename());
+                existingProduct.setImageType(sniffImageType(image));
+                productImageRepository.saveImage(id, image, productImage.getSize());
+            }
+        }
 
         // 4️⃣ Save updated product
-        return productRepository.save(existingProduct);
+        Product savedProduct = productRepository.save(existingProduct);
+        recordProductEvent(savedProduct, "ProductUpdated");
+        if (repriced) {
+            cartsRepricedAfterCommit();
+        }
+        return savedProduct;
     }
 
+    // Uploads are copied to the database through this fixed-size buffer, never read whole into the heap
+    private BufferedInputStream openImage(MultipartFile productImage) throws IOException {
+        if (productImage.getSize() > maxImageBytes) {
+            throw new IllegalArgumentException("Image is larger than the " + maxImageBytes + " byte limit");
+        }
+        return new BufferedInputStream(productImage.getInputStream(), IMAGE_BUFFER_BYTES);
+    }
 
+    private static String sniffImageType(BufferedInputStream image) throws IOException {
+        String contentType = ImageTypes.sniff(image);
+        if (contentType == null) {
+            throw new IllegalArgumentException("Unsupported image format; expected JPEG, PNG, GIF or WebP");
+        }
+        return contentType;
+    }
+
+    @Transactional
     public void deleteproduct(int id){
+        productImageRepository.deleteByProductId(id);
         productRepository.deleteById(id);
+        outboxService.record("PRODUCT", id, "ProductDeleted", Map.of("productId", id));
+        catalogChanged(id);
+        productUpdateStream.publishDeletedAfterCommit(id);
+        productSuggestService.removeAfterCommit(id);
+    }
+
+    // Stock and catalog changes are published through the outbox in the same transaction
+    private void recordProductEvent(Product product, String eventType) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("productId", product.getId());
+        payload.put("name", product.getName());
+        payload.put("category", product.getCategory());
+        payload.put("price", product.getPrice());
+        payload.put("available", product.isAvailable());
+        payload.put("quantity", product.getQuantity());
+        outboxService.record("PRODUCT", product.getId(), eventType, payload);
+        catalogChanged(product.getId());
+        productUpdateStream.publishAfterCommit(product);
+        productSuggestService.indexAfterCommit(product);
     }
 
     public List<Product> searchProducts(String keyword) {
-       return productRepository.searchProducts(keyword);
+        return getCatalogSearch(keyword).products();
+    }
+
+    public CatalogRead getCatalogSearch(String keyword) {
+        // The query is case-insensitive, so keywords differing only in case share an entry
+        return catalogReads.get(SEARCH_KEY_PREFIX + keyword.toLowerCase(Locale.ROOT));
+    }
+
+    // Served from the listing snapshot only while no write has committed since it was loaded; stock changes from
+    // checkout bump the version without invalidating the snapshot. null means use getProductById
+    public EncodedJson getEncodedProduct(int id) {
+        CatalogRead listing = catalogReads.getIfPresent(ALL_PRODUCTS_KEY);
+        if (listing == null || listing.version() != catalogVersion.current()) {
+            return null;
+        }
+        return listing.productBodies().get(id);
+    }
+
+    // Runs on a miss or a background refresh; the new snapshot replaces the old one in a single swap.
+    // The version is read first, so the result is at least as new as the ETag built from it.
+    private CatalogRead loadCatalogRead(String key) throws IOException {
+        long version = catalogVersion.current();
+        if (key.startsWith(SEARCH_KEY_PREFIX)) {
+            List<Product> products = List.copyOf(productRepository.searchProducts(key.substring(SEARCH_KEY_PREFIX.length())));
+            return new CatalogRead(version, products, EncodedJson.of(objectMapper, products), Map.of());
+        }
+        List<Product> products = List.copyOf(productRepository.findAll());
+        Map<Integer, EncodedJson> productBodies = new HashMap<>();
+        List<EncodedJson> elements = new ArrayList<>(products.size());
+        for (Product product : products) {
+            EncodedJson element = EncodedJson.of(objectMapper, product);
+            productBodies.put(product.getId(), element);
+            elements.add(element);
+        }
+        return new CatalogRead(version, products, EncodedJson.array(elements), Map.copyOf(productBodies));
+    }
+
+    // Drops listing/search results here and on the other nodes once the write is committed
+    private void catalogChanged(int productId) {
+        entityCacheInvalidator.productChanged(productId);
+        catalogVersion.changed();
+        CacheInvalidationBus.afterCommit(() -> catalogReads.invalidateAll());
+        cacheInvalidationBus.publishClearAfterCommit(CATALOG_REGION);
+    }
+
+    // Carts are cached already priced, and category promotions follow the category; clear() reaches every node
+    private void cartsRepricedAfterCommit() {
+        CacheInvalidationBus.afterCommit(() -> {
+            Cache carts = cacheManager.getCache(CART_CACHE);
+            if (carts != null) {
+                carts.clear();
+            }
+        });
     }
 
     public Product updateProduct(Product product) {
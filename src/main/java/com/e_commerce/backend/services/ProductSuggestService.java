@@ -0,0 +1,234 @@
+package com.e_commerce.backend.services;
+
+import com.e_commerce.backend.cache.CacheInvalidationBus;
+import com.e_commerce.backend.dto.SuggestionDTO;
+import com.e_commerce.backend.models.Product;
+import com.e_commerce.backend.repositories.ProductRepository;
+import com.e_commerce.backend.repositories.ProductSalesRollupRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Typeahead over product names and categories, weighted by units sold.
+ * Names are indexed from every word, so "pho" finds "Smart Phone". Product writes on this node update the index
+ * incrementally after commit; a periodic rebuild picks up writes from other nodes and fresh sales weights.
+ */
+@Service
+public class ProductSuggestService {
+
+    public static final int MAX_SUGGESTIONS = 10;
+    private static final int MAX_TERM_LENGTH = 40;
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private record IndexedProduct(SuggestionDTO suggestion, List<String> terms, String category, long weight) {
+    }
+
+    private static final class CategoryStats {
+        SuggestionDTO suggestion;
+        long weight;
+        int products;
+    }
+
+    // Everything the index is built from; only touched under the write lock once published
+    private static final class State {
+        final SuggestionTrie<SuggestionDTO> trie = new SuggestionTrie<>(MAX_SUGGESTIONS);
+        final Map<Integer, IndexedProduct> products = new HashMap<>();
+        final Map<String, CategoryStats> categories = new HashMap<>();
+        final Map<Integer, Long> weights;
+
+        State(Map<Integer, Long> weights) {
+            this.weights = weights;
+        }
+
+        void put(int productId, String name, String category, boolean bulk) {
+            remove(productId);
+            String normalizedName = normalize(name);
+            if (normalizedName.isEmpty()) {
+                return;
+            }
+            long weight = weights.getOrDefault(productId, 0L);
+            SuggestionDTO suggestion = new SuggestionDTO(name, "PRODUCT", productId);
+            List<String> terms = wordSuffixes(normalizedName);
+            for (String term : terms) {
+                SuggestionTrie.Entry<SuggestionDTO> entry = new SuggestionTrie.Entry<>(suggestion, weight, normalizedName);
+                if (bulk) {
+                    trie.addWithoutRecompute(term, entry);
+                } else {
+                    trie.add(term, entry);
+                }
+            }
+            String normalizedCategory = normalize(category);
+            products.put(productId, new IndexedProduct(suggestion, terms, normalizedCategory, weight));
+            if (!normalizedCategory.isEmpty()) {
+                CategoryStats stats = categories.computeIfAbsent(normalizedCategory, c -> new CategoryStats());
+                if (stats.suggestion == null) {
+                    stats.suggestion = new SuggestionDTO(category, "CATEGORY", null);
+                }
+                if (!bulk) {
+                    trie.remove(normalizedCategory, stats.suggestion);
+                }
+                stats.weight += weight;
+                stats.products++;
+                if (!bulk) {
+                    trie.add(normalizedCategory, new SuggestionTrie.Entry<>(stats.suggestion, stats.weight, normalizedCategory));
+                }
+            }
+        }
+
+        void remove(int productId) {
+            IndexedProduct indexed = products.remove(productId);
+            if (indexed == null) {
+                return;
+            }
+            indexed.terms().forEach(term -> trie.remove(term, indexed.suggestion()));
+            CategoryStats stats = categories.get(indexed.category());
+            if (stats != null) {
+                trie.remove(indexed.category(), stats.suggestion);
+                stats.weight -= indexed.weight();
+                if (--stats.products == 0) {
+                    categories.remove(indexed.category());
+                } else {
+                    trie.add(indexed.category(), new SuggestionTrie.Entry<>(stats.suggestion, stats.weight, indexed.category()));
+                }
+            }
+        }
+
+        void finishBulk() {
+            categories.forEach((normalized, stats) -> trie.addWithoutRecompute(normalized,
+                    new SuggestionTrie.Entry<>(stats.suggestion, stats.weight, normalized)));
+            trie.recomputeAll();
+        }
+    }
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductSalesRollupRepository productSalesRollupRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private State state = new State(Map.of());
+    // Changes committed while a rebuild is loading; replayed onto the rebuilt state
+    private List<Consumer<State>> changesDuringRebuild;
+
+    @PostConstruct
+    void init() {
+        rebuild();
+    }
+
+    public List<SuggestionDTO> suggest(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        if (normalized.length() > MAX_TERM_LENGTH) {
+            normalized = normalized.substring(0, MAX_TERM_LENGTH);
+        }
+        int boundedLimit = Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+        lock.readLock().lock();
+        try {
+            return state.trie.top(normalized, boundedLimit).stream()
+                    .map(SuggestionTrie.Entry::value)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Called inside the writing transaction
+    public void indexAfterCommit(Product product) {
+        int productId = product.getId();
+        String name = product.getName();
+        String category = product.getCategory();
+        CacheInvalidationBus.afterCommit(() -> apply(s -> s.put(productId, name, category, false)));
+    }
+
+    public void removeAfterCommit(int productId) {
+        CacheInvalidationBus.afterCommit(() -> apply(s -> s.remove(productId)));
+    }
+
+    @Scheduled(initialDelayString = "${catalog.suggest.rebuild-interval-ms:300000}",
+            fixedDelayString = "${catalog.suggest.rebuild-interval-ms:300000}")
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        State rebuilt;
+        try {
+            Map<Integer, Long> weights = new HashMap<>();
+            for (Object[] row : productSalesRollupRepository.findAllUnitsSold()) {
+                weights.put((Integer) row[0], (Long) row[1]);
+            }
+            rebuilt = new State(weights);
+            for (Object[] row : productRepository.findAllSuggestFields()) {
+                rebuilt.put((Integer) row[0], (String) row[1], (String) row[2], true);
+            }
+            rebuilt.finishBulk();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild.forEach(change -> change.accept(rebuilt));
+            changesDuringRebuild = null;
+            state = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(Consumer<State> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(state);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String stripped = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return NON_ALPHANUMERIC.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    // "smart phone x" -> "smart phone x", "phone x", "x"
+    private static List<String> wordSuffixes(String normalized) {
+        List<String> terms = new ArrayList<>();
+        int start = 0;
+        while (start >= 0) {
+            String term = normalized.substring(start);
+            terms.add(term.length() > MAX_TERM_LENGTH ? term.substring(0, MAX_TERM_LENGTH) : term);
+            int space = normalized.indexOf(' ', start);
+            start = space < 0 ? -1 : space + 1;
+        }
+        return terms;
+    }
+}
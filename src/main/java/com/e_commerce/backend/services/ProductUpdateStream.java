@@ -0,0 +1,252 @@
+package com.e_commerce.backend.services;
+
+import com.e_commerce.backend.cache.CacheInvalidationBus;
+import com.e_commerce.backend.cache.EntityCacheInvalidator;
+import com.e_commerce.backend.dto.ProductStockUpdate;
+import com.e_commerce.backend.models.Product;
+import com.e_commerce.backend.repositories.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes committed stock and price changes to product pages over SSE.
+ * Connections are async (no thread while idle). One dispatcher collects changes, keeping only the latest per
+ * product, and hands each client its batch on a small send pool. A client still busy with its previous batch keeps
+ * coalescing instead of queueing, and one stalled past the limit is disconnected.
+ */
+@Service
+public class ProductUpdateStream {
+
+    private static final class Subscriber {
+        final SseEmitter emitter;
+        final Set<Integer> productIds;
+        final Map<Integer, ProductStockUpdate> pending = new ConcurrentHashMap<>();
+        final AtomicBoolean sending = new AtomicBoolean();
+        volatile long sendStartedAt;
+
+        Subscriber(SseEmitter emitter, Set<Integer> productIds) {
+            this.emitter = emitter;
+            this.productIds = productIds;
+        }
+    }
+
+    // Marks a product changed on another node; the dispatcher reloads it
+    private static final ProductStockUpdate RELOAD = new ProductStockUpdate();
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Value("${product.stream.max-connections:10000}")
+    private int maxConnections;
+
+    @Value("${product.stream.max-ids:50}")
+    private int maxIds;
+
+    @Value("${product.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${product.stream.stall-timeout-ms:10000}")
+    private long stallTimeoutMs;
+
+    @Value("${product.stream.send-threads:4}")
+    private int sendThreads;
+
+    // Committed changes waiting for the next dispatch, latest per product
+    private final Map<Integer, ProductStockUpdate> changed = new ConcurrentHashMap<>();
+    private final Map<Integer, Set<Subscriber>> subscribersByProduct = new ConcurrentHashMap<>();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger connections = new AtomicInteger();
+    private ExecutorService sendPool;
+
+    @PostConstruct
+    void init() {
+        sendPool = Executors.newFixedThreadPool(sendThreads,
+                Thread.ofPlatform().name("product-stream-", 0).daemon().factory());
+        // Stock and catalog changes committed on other nodes
+        cacheInvalidationBus.subscribe(EntityCacheInvalidator.PRODUCT_REGION, new CacheInvalidationBus.Listener() {
+            @Override
+            public void evicted(String key) {
+                int productId = Integer.parseInt(key);
+                if (subscribersByProduct.containsKey(productId)) {
+                    changed.putIfAbsent(productId, RELOAD);
+                }
+            }
+
+            @Override
+            public void cleared() {
+                subscribersByProduct.keySet().forEach(productId -> changed.putIfAbsent(productId, RELOAD));
+            }
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sendPool.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    /** Returns null when the node is already holding its maximum number of streams. */
+    public SseEmitter subscribe(Collection<Integer> productIds) throws IOException {
+        if (productIds.isEmpty() || productIds.size() > maxIds) {
+            throw new IllegalArgumentException("Between 1 and " + maxIds + " product ids are required");
+        }
+        if (connections.incrementAndGet() > maxConnections) {
+            connections.decrementAndGet();
+            return null;
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, Set.copyOf(productIds));
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+        subscribers.add(subscriber);
+        subscriber.productIds.forEach(productId ->
+                subscribersByProduct.computeIfAbsent(productId, id -> ConcurrentHashMap.newKeySet()).add(subscriber));
+
+        // Current state first, so the page needs no separate fetch
+        try {
+            List<ProductStockUpdate> initial = new ArrayList<>();
+            productRepository.findAllById(subscriber.productIds).forEach(product -> initial.add(ProductStockUpdate.of(product)));
+            emitter.send(SseEmitter.event().name("stock").data(initial, MediaType.APPLICATION_JSON));
+        } catch (IOException | RuntimeException e) {
+            unsubscribe(subscriber);
+            throw e;
+        }
+        return emitter;
+    }
+
+    // Called inside the writing transaction; clients only ever see committed values
+    public void publishAfterCommit(Product product) {
+        ProductStockUpdate update = ProductStockUpdate.of(product);
+        CacheInvalidationBus.afterCommit(() -> changed.put(update.getProductId(), update));
+    }
+
+    public void publishDeletedAfterCommit(int productId) {
+        CacheInvalidationBus.afterCommit(() -> changed.put(productId, ProductStockUpdate.deleted(productId)));
+    }
+
+    @Scheduled(fixedDelayString = "${product.stream.dispatch-interval-ms:250}")
+    public void dispatch() {
+        if (changed.isEmpty()) {
+            return;
+        }
+        Set<Subscriber> touched = new HashSet<>();
+        for (Integer productId : List.copyOf(changed.keySet())) {
+            ProductStockUpdate update = changed.remove(productId);
+            Set<Subscriber> interested = subscribersByProduct.get(productId);
+            if (update == null || interested == null) {
+                continue;
+            }
+            if (update == RELOAD) {
+                update = productRepository.findById(productId)
+                        .map(ProductStockUpdate::of)
+                        .orElse(ProductStockUpdate.deleted(productId));
+            }
+            for (Subscriber subscriber : interested) {
+                subscriber.pending.put(productId, update);
+                touched.add(subscriber);
+            }
+        }
+        touched.forEach(this::scheduleSend);
+    }
+
+    // Keeps idle connections open through proxies and finds clients that went away
+    @Scheduled(fixedDelayString = "${product.stream.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.sending.compareAndSet(false, true)) {
+                subscriber.sendStartedAt = System.currentTimeMillis();
+                sendPool.execute(() -> {
+                    try {
+                        subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } catch (IOException | IllegalStateException e) {
+                        subscriber.emitter.completeWithError(e);
+                    } finally {
+                        subscriber.sending.set(false);
+                    }
+                });
+            } else {
+                closeIfStalled(subscriber);
+            }
+        }
+    }
+
+    public int getConnectionCount() {
+        return connections.get();
+    }
+
+    private void scheduleSend(Subscriber subscriber) {
+        if (!subscriber.sending.compareAndSet(false, true)) {
+            // Still writing the previous batch; its pending map keeps coalescing meanwhile
+            closeIfStalled(subscriber);
+            return;
+        }
+        subscriber.sendStartedAt = System.currentTimeMillis();
+        sendPool.execute(() -> drain(subscriber));
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            while (!subscriber.pending.isEmpty()) {
+                List<ProductStockUpdate> batch = new ArrayList<>(subscriber.pending.size());
+                for (Integer productId : List.copyOf(subscriber.pending.keySet())) {
+                    ProductStockUpdate update = subscriber.pending.remove(productId);
+                    if (update != null) {
+                        batch.add(update);
+                    }
+                }
+                subscriber.emitter.send(SseEmitter.event().name("stock").data(batch, MediaType.APPLICATION_JSON));
+            }
+        } catch (IOException | IllegalStateException e) {
+            subscriber.emitter.completeWithError(e);
+        } finally {
+            subscriber.sending.set(false);
+        }
+        // Updates that arrived after the last check but before the flag was released
+        if (!subscriber.pending.isEmpty() && subscribers.contains(subscriber)) {
+            scheduleSend(subscriber);
+        }
+    }
+
+    private void closeIfStalled(Subscriber subscriber) {
+        if (System.currentTimeMillis() - subscriber.sendStartedAt > stallTimeoutMs) {
+            subscriber.emitter.complete();
+            unsubscribe(subscriber);
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        if (!subscribers.remove(subscriber)) {
+            return;
+        }
+        connections.decrementAndGet();
+        for (Integer productId : subscriber.productIds) {
+            subscribersByProduct.computeIfPresent(productId, (id, set) -> {
+                set.remove(subscriber);
+                return set.isEmpty() ? null : set;
+            });
+        }
+    }
+}
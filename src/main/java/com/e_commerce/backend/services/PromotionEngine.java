@@ -0,0 +1,323 @@
+package com.e_commerce.backend.services;
+
+import com.e_commerce.backend.cache.CacheInvalidationBus;
+import com.e_commerce.backend.models.Promotion;
+import com.e_commerce.backend.money.Money;
+import com.e_commerce.backend.repositories.PromotionRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prices carts against the live promotions. Rules are compiled into an immutable index keyed by product id and
+ * category, so a cart costs one lookup per line plus the rules that can apply to it, however many rules exist.
+ * Reloads build a new index and swap it in; readers never see a half-built one.
+ *
+ * <p>Each line gets its single best product or category rule, then the best cart rule whose threshold the
+ * discounted subtotal meets is taken off the whole cart. Equal discounts go to the older rule.
+ */
+@Service
+public class PromotionEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(PromotionEngine.class);
+
+    public static final String REGION = "promotions";
+    private static final String CART_CACHE = "cart";
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    public record Line(int productId, String category, Money unitPrice, int quantity) {
+    }
+
+    public record PricedLine(Money subtotal, Money discount, String promotion) {
+    }
+
+    public record Pricing(List<PricedLine> lines, Money subtotal, Money discount, String cartPromotion, Money total) {
+
+        /**
+         * Each line's own discount plus its share of the cart discount, split in proportion to the lines'
+         * discounted subtotals. Leftover cents go to the lines with the largest rounded-off fractions, so no
+         * line is discounted below zero and subtotal minus these always equals {@code total}; this is what an
+         * order stores per item.
+         */
+        public List<Money> allocatedDiscounts() {
+            long cartDiscount = discount.minorUnits();
+            long net = subtotal.minorUnits();
+            for (PricedLine line : lines) {
+                cartDiscount -= line.discount().minorUnits();
+                net -= line.discount().minorUnits();
+            }
+            long[] allocated = new long[lines.size()];
+            long[] fractions = new long[lines.size()];
+            long remainder = cartDiscount;
+            // The cart discount never exceeds the net subtotal, so net is only 0 when there is nothing to split
+            if (net > 0) {
+                for (int i = 0; i < lines.size(); i++) {
+                    long product = Math.multiplyExact(cartDiscount, lineNet(i));
+                    allocated[i] = product / net;
+                    fractions[i] = product % net;
+                    remainder -= allocated[i];
+                }
+            }
+            List<Integer> byFraction = new ArrayList<>(lines.size());
+            for (int i = 0; i < lines.size(); i++) {
+                byFraction.add(i);
+            }
+            byFraction.sort(Comparator.comparingLong((Integer i) -> fractions[i]).reversed());
+            for (int i = 0; i < remainder; i++) {
+                allocated[byFraction.get(i)]++;
+            }
+            List<Money> discounts = new ArrayList<>(lines.size());
+            for (int i = 0; i < lines.size(); i++) {
+                discounts.add(lines.get(i).discount().plus(Money.ofMinor(allocated[i])));
+            }
+            return discounts;
+        }
+
+        private long lineNet(int i) {
+            return lines.get(i).subtotal().minorUnits() - lines.get(i).discount().minorUnits();
+        }
+    }
+
+    // A promotion reduced to what pricing needs: amounts in minor units, percentages in basis points,
+    // the window in epoch millis
+    private record Rule(long id, String name, Promotion.Scope scope, Integer productId, String category,
+                        Promotion.Type type, long basisPoints, long amountOff,
+                        int buyQuantity, int getQuantity, int minQuantity, long minSubtotal,
+                        long startsAt, long endsAt) {
+
+        boolean liveAt(long now) {
+            return now >= startsAt && now < endsAt;
+        }
+
+        long lineDiscount(long unitPrice, int quantity, long lineSubtotal) {
+            if (quantity < minQuantity) {
+                return 0;
+            }
+            long discount = switch (type) {
+                case PERCENT_OFF -> percentOf(lineSubtotal);
+                case AMOUNT_OFF -> Math.multiplyExact(Math.min(amountOff, unitPrice), quantity);
+                case BUY_X_GET_Y -> Math.multiplyExact(unitPrice, (long) (quantity / (buyQuantity + getQuantity)) * getQuantity);
+            };
+            return Math.min(discount, lineSubtotal);
+        }
+
+        long cartDiscount(long subtotal) {
+            if (subtotal < minSubtotal) {
+                return 0;
+            }
+            return Math.min(type == Promotion.Type.PERCENT_OFF ? percentOf(subtotal) : amountOff, subtotal);
+        }
+
+        // Percentages round half up to the cent, per line or per cart
+        private long percentOf(long amount) {
+            return Money.divide(Math.multiplyExact(amount, basisPoints), 10_000, RoundingMode.HALF_UP);
+        }
+    }
+
+    private record Index(List<Rule> rules, Map<Integer, Rule[]> byProduct, Map<String, Rule[]> byCategory,
+                         Rule[] cart, long nextTransition) {
+    }
+
+    private static final Index EMPTY = new Index(List.of(), Map.of(), Map.of(), new Rule[0], Long.MAX_VALUE);
+
+    @Autowired
+    private PromotionRepository promotionRepository;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private volatile Index index = EMPTY;
+
+    @PostConstruct
+    void init() {
+        // Rule changes made on other nodes
+        cacheInvalidationBus.subscribe(REGION, new CacheInvalidationBus.Listener() {
+            @Override
+            public void evicted(String key) {
+                reload();
+            }
+
+            @Override
+            public void cleared() {
+                reload();
+            }
+        });
+        reload();
+    }
+
+    // Works in minor units throughout; only the results are wrapped as Money
+    public Pricing price(List<Line> lines) {
+        Index current = index;
+        long now = System.currentTimeMillis();
+        List<PricedLine> priced = new ArrayList<>(lines.size());
+        long subtotal = 0;
+        long lineDiscounts = 0;
+        for (Line line : lines) {
+            long unitPrice = line.unitPrice().minorUnits();
+            long lineSubtotal = Math.multiplyExact(unitPrice, line.quantity());
+            Rule best = null;
+            long bestDiscount = 0;
+            for (Rule[] candidates : new Rule[][]{current.byProduct().get(line.productId()),
+                    line.category() != null ? current.byCategory().get(line.category()) : null}) {
+                if (candidates == null) {
+                    continue;
+                }
+                for (Rule rule : candidates) {
+                    if (!rule.liveAt(now)) {
+                        continue;
+                    }
+                    long discount = rule.lineDiscount(unitPrice, line.quantity(), lineSubtotal);
+                    if (discount > bestDiscount || (best != null && discount == bestDiscount && rule.id() < best.id())) {
+                        best = rule;
+                        bestDiscount = discount;
+                    }
+                }
+            }
+            priced.add(new PricedLine(Money.ofMinor(lineSubtotal), Money.ofMinor(bestDiscount),
+                    best != null ? best.name() : null));
+            subtotal = Math.addExact(subtotal, lineSubtotal);
+            lineDiscounts += bestDiscount;
+        }
+
+        long net = subtotal - lineDiscounts;
+        Rule bestCart = null;
+        long cartDiscount = 0;
+        for (Rule rule : current.cart()) {
+            if (!rule.liveAt(now)) {
+                continue;
+            }
+            long discount = rule.cartDiscount(net);
+            if (discount > cartDiscount) {
+                bestCart = rule;
+                cartDiscount = discount;
+            }
+        }
+        long discount = lineDiscounts + cartDiscount;
+        return new Pricing(priced, Money.ofMinor(subtotal), Money.ofMinor(discount),
+                bestCart != null ? bestCart.name() : null, Money.ofMinor(subtotal - discount));
+    }
+
+    // Admin writes: reload here and on the other nodes once the change is committed
+    public void reloadAfterCommit() {
+        CacheInvalidationBus.afterCommit(this::reload);
+        cacheInvalidationBus.publishClearAfterCommit(REGION);
+    }
+
+    // Also catches rules that started or ended since the last load, so cached carts are repriced
+    @Scheduled(initialDelayString = "${promotions.reload-interval-ms:60000}",
+            fixedDelayString = "${promotions.reload-interval-ms:60000}")
+    public synchronized void reload() {
+        List<Promotion> live;
+        try {
+            live = promotionRepository.findLive(LocalDateTime.now());
+        } catch (RuntimeException e) {
+            log.warn("Promotion reload failed, keeping {} rules: {}", index.rules().size(), e.getMessage());
+            return;
+        }
+        if (install(live)) {
+            // Carts are cached already priced
+            Cache carts = cacheManager.getCache(CART_CACHE);
+            if (carts != null) {
+                carts.clear();
+            }
+        }
+    }
+
+    /**
+     * Compiles the promotions into a new index and swaps it in. Returns whether prices may differ from the
+     * previous index: the rules changed, or one of them has started or ended since it was built.
+     */
+    public boolean install(List<Promotion> promotions) {
+        long now = System.currentTimeMillis();
+        List<Rule> rules = new ArrayList<>(promotions.size());
+        for (Promotion promotion : promotions) {
+            Rule rule = compile(promotion);
+            if (rule != null && rule.endsAt() > now) {
+                rules.add(rule);
+            }
+        }
+        rules.sort(Comparator.comparingLong(Rule::id));
+
+        Map<Integer, List<Rule>> byProduct = new HashMap<>();
+        Map<String, List<Rule>> byCategory = new HashMap<>();
+        List<Rule> cart = new ArrayList<>();
+        long nextTransition = Long.MAX_VALUE;
+        for (Rule rule : rules) {
+            switch (rule.scope()) {
+                case PRODUCT -> byProduct.computeIfAbsent(rule.productId(), id -> new ArrayList<>()).add(rule);
+                case CATEGORY -> byCategory.computeIfAbsent(rule.category(), c -> new ArrayList<>()).add(rule);
+                case CART -> cart.add(rule);
+            }
+            if (rule.startsAt() > now) {
+                nextTransition = Math.min(nextTransition, rule.startsAt());
+            }
+            nextTransition = Math.min(nextTransition, rule.endsAt());
+        }
+
+        Map<Integer, Rule[]> productIndex = new HashMap<>(byProduct.size() * 2);
+        byProduct.forEach((id, list) -> productIndex.put(id, list.toArray(Rule[]::new)));
+        Map<String, Rule[]> categoryIndex = new HashMap<>(byCategory.size() * 2);
+        byCategory.forEach((category, list) -> categoryIndex.put(category, list.toArray(Rule[]::new)));
+
+        Index previous = index;
+        index = new Index(List.copyOf(rules), productIndex, categoryIndex, cart.toArray(Rule[]::new), nextTransition);
+        return !rules.equals(previous.rules()) || now >= previous.nextTransition();
+    }
+
+    // Rules that cannot be applied are skipped rather than failing the whole reload
+    private static Rule compile(Promotion p) {
+        if (p.getId() == null || p.getType() == null || p.getScope() == null || !isApplicable(p)) {
+            log.warn("Skipping promotion {} ({}): incomplete rule", p.getId(), p.getName());
+            return null;
+        }
+        return new Rule(p.getId(), p.getName(), p.getScope(), p.getProductId(), p.getCategory(), p.getType(),
+                p.getPercentOff() != null ? p.getPercentOff().movePointRight(2).longValueExact() : 0,
+                p.getAmountOff() != null ? p.getAmountOff().minorUnits() : 0,
+                p.getBuyQuantity() != null ? p.getBuyQuantity() : 0,
+                p.getGetQuantity() != null ? p.getGetQuantity() : 0,
+                p.getMinQuantity() != null ? p.getMinQuantity() : 0,
+                p.getMinSubtotal() != null ? p.getMinSubtotal().minorUnits() : 0,
+                p.getStartsAt() != null ? toEpochMilli(p.getStartsAt()) : Long.MIN_VALUE,
+                p.getEndsAt() != null ? toEpochMilli(p.getEndsAt()) : Long.MAX_VALUE);
+    }
+
+    // Shared with PromotionService so an invalid rule is rejected when it is saved
+    static boolean isApplicable(Promotion p) {
+        boolean target = switch (p.getScope()) {
+            case PRODUCT -> p.getProductId() != null;
+            case CATEGORY -> p.getCategory() != null && !p.getCategory().isBlank();
+            case CART -> p.getType() != Promotion.Type.BUY_X_GET_Y;
+        };
+        boolean amounts = switch (p.getType()) {
+            // Whole basis points, e.g. 12.5 but not 12.345
+            case PERCENT_OFF -> p.getPercentOff() != null && p.getPercentOff().signum() > 0
+                    && p.getPercentOff().compareTo(HUNDRED) <= 0 && p.getPercentOff().stripTrailingZeros().scale() <= 2;
+            case AMOUNT_OFF -> p.getAmountOff() != null && p.getAmountOff().signum() > 0;
+            case BUY_X_GET_Y -> p.getBuyQuantity() != null && p.getBuyQuantity() > 0
+                    && p.getGetQuantity() != null && p.getGetQuantity() > 0;
+        };
+        return target && amounts;
+    }
+
+    private static long toEpochMilli(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
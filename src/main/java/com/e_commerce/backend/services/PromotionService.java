@@ -0,0 +1,67 @@
+package com.e_commerce.backend.services;
+
+import com.e_commerce.backend.models.Promotion;
+import com.e_commerce.backend.repositories.PromotionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+public class PromotionService {
+
+    @Autowired
+    private PromotionRepository promotionRepository;
+
+    @Autowired
+    private PromotionEngine promotionEngine;
+
+    public List<Promotion> getAllPromotions() {
+        return promotionRepository.findAllByOrderByIdDesc();
+    }
+
+    @Transactional
+    public Promotion createPromotion(Promotion promotion) {
+        promotion.setId(null);
+        validate(promotion);
+        Promotion saved = promotionRepository.save(promotion);
+        promotionEngine.reloadAfterCommit();
+        return saved;
+    }
+
+    @Transactional
+    public Promotion updatePromotion(Long id, Promotion promotion) {
+        if (!promotionRepository.existsById(id)) {
+            throw new RuntimeException("Promotion not found with id: " + id);
+        }
+        promotion.setId(id);
+        validate(promotion);
+        Promotion saved = promotionRepository.save(promotion);
+        promotionEngine.reloadAfterCommit();
+        return saved;
+    }
+
+    @Transactional
+    public void deletePromotion(Long id) {
+        promotionRepository.deleteById(id);
+        promotionEngine.reloadAfterCommit();
+    }
+
+    private void validate(Promotion promotion) {
+        if (promotion.getName() == null || promotion.getName().isBlank()) {
+            throw new IllegalArgumentException("Promotion name is required");
+        }
+        if (promotion.getType() == null || promotion.getScope() == null) {
+            throw new IllegalArgumentException("Promotion type and scope are required");
+        }
+        if (!PromotionEngine.isApplicable(promotion)) {
+            throw new IllegalArgumentException("Promotion " + promotion.getType() + " on " + promotion.getScope()
+                    + " is missing its target or amount");
+        }
+        if (promotion.getStartsAt() != null && promotion.getEndsAt() != null
+                && !promotion.getEndsAt().isAfter(promotion.getStartsAt())) {
+            throw new IllegalArgumentException("Promotion must end after it starts");
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.e_commerce.backend.services;
+
+import com.e_commerce.backend.cache.CacheInvalidationBus;
+import com.e_commerce.backend.dto.ProductSummaryDTO;
+import com.e_commerce.backend.models.OrderItem;
+import com.e_commerce.backend.models.Product;
+import com.e_commerce.backend.repositories.OrderItemRepository;
+import com.e_commerce.backend.repositories.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * "Frequently bought together" from an in-memory co-occurrence matrix of completed orders.
+ * Built once from order history (live and archive), then updated after each checkout commits; requests only
+ * read the matrix. A periodic rebuild folds in orders completed on other nodes.
+ */
+@Service
+public class RelatedProductsService {
+
+    public static final int MAX_RELATED = 20;
+    // Bulk orders would add n^2 pairs while saying little about affinity
+    private static final int MAX_ITEMS_PER_ORDER = 50;
+
+    // Row per product: co-purchased product id -> number of orders containing both
+    private static final class Matrix {
+        final IntIntHashMap rowIndex = new IntIntHashMap(1024);
+        final List<IntIntHashMap> rows = new ArrayList<>();
+
+        void addOrder(int[] productIds) {
+            int[] distinct = Arrays.stream(productIds).filter(id -> id != 0).distinct().limit(MAX_ITEMS_PER_ORDER).toArray();
+            for (int i = 0; i < distinct.length; i++) {
+                for (int j = i + 1; j < distinct.length; j++) {
+                    row(distinct[i]).addTo(distinct[j], 1);
+                    row(distinct[j]).addTo(distinct[i], 1);
+                }
+            }
+        }
+
+        IntIntHashMap row(int productId) {
+            int index = rowIndex.get(productId, -1);
+            if (index < 0) {
+                index = rows.size();
+                rows.add(new IntIntHashMap());
+                rowIndex.put(productId, index);
+            }
+            return rows.get(index);
+        }
+
+        IntIntHashMap rowOrNull(int productId) {
+            int index = rowIndex.get(productId, -1);
+            return index < 0 ? null : rows.get(index);
+        }
+    }
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Matrix matrix = new Matrix();
+    // Orders committed while a rebuild is reading history; replayed onto the rebuilt matrix
+    private List<int[]> ordersDuringRebuild;
+
+    @PostConstruct
+    void init() {
+        rebuild();
+    }
+
+    public List<ProductSummaryDTO> getRelated(int productId, int limit) {
+        int[] relatedIds = topRelated(productId, Math.max(1, Math.min(limit, MAX_RELATED)));
+        if (relatedIds.length == 0) {
+            return List.of();
+        }
+        // Served from the second-level cache where possible; deleted products are skipped
+        List<Product> products = productRepository.findAllByIdCached(Arrays.stream(relatedIds).boxed().toList());
+        return products.stream()
+                .filter(Objects::nonNull)
+                .map(ProductSummaryDTO::of)
+                .toList();
+    }
+
+    // Called inside the checkout transaction
+    public void recordOrderAfterCommit(List<OrderItem> items) {
+        int[] productIds = items.stream().mapToInt(item -> item.getProduct().getId()).toArray();
+        CacheInvalidationBus.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                matrix.addOrder(productIds);
+                if (ordersDuringRebuild != null) {
+                    ordersDuringRebuild.add(productIds);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    @Scheduled(initialDelayString = "${catalog.related.rebuild-interval-ms:21600000}",
+            fixedDelayString = "${catalog.related.rebuild-interval-ms:21600000}")
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            ordersDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Matrix rebuilt = new Matrix();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<Object[]> rows = orderItemRepository.streamCompletedOrderProducts()) {
+                    long[] currentOrder = {Long.MIN_VALUE};
+                    List<Integer> orderProducts = new ArrayList<>();
+                    rows.forEach(row -> {
+                        long orderId = ((Number) row[0]).longValue();
+                        if (orderId != currentOrder[0]) {
+                            rebuilt.addOrder(orderProducts.stream().mapToInt(Integer::intValue).toArray());
+                            orderProducts.clear();
+                            currentOrder[0] = orderId;
+                        }
+                        orderProducts.add(((Number) row[1]).intValue());
+                    });
+                    rebuilt.addOrder(orderProducts.stream().mapToInt(Integer::intValue).toArray());
+                }
+            });
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                ordersDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+        lock.writeLock().lock();
+        try {
+            ordersDuringRebuild.forEach(rebuilt::addOrder);
+            ordersDuringRebuild = null;
+            matrix = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Highest co-purchase counts first; count and id are packed into one long so a plain sort orders them
+    private int[] topRelated(int productId, int limit) {
+        long[] packed;
+        lock.readLock().lock();
+        try {
+            IntIntHashMap row = matrix.rowOrNull(productId);
+            if (row == null) {
+                return new int[0];
+            }
+            packed = new long[row.size()];
+            int[] n = {0};
+            row.forEach((relatedId, count) -> packed[n[0]++] = ((long) count << 32) | (relatedId & 0xFFFFFFFFL));
+        } finally {
+            lock.readLock().unlock();
+        }
+        Arrays.sort(packed);
+        int resultSize = Math.min(limit, packed.length);
+        int[] result = new int[resultSize];
+        for (int i = 0; i < resultSize; i++) {
+            result[i] = (int) packed[packed.length - 1 - i];
+        }
+        return result;
+    }
+}
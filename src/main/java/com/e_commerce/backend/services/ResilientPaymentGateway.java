@@ -0,0 +1,215 @@
+package com.e_commerce.backend.services;
+
+import com.e_commerce.backend.dto.GatewayChargeRequest;
+import com.e_commerce.backend.dto.GatewayChargeResult;
+import com.e_commerce.backend.exception.PaymentGatewayException;
+
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Wraps a {@link PaymentGateway} with a bulkhead, per-call timeouts, a circuit breaker and retry with jitter.
+ * Calls run on a dedicated bounded pool, so a slow provider can only tie up that pool and never
+ * more than {@code queueCapacity} waiting checkouts; everything beyond that is rejected immediately.
+ */
+public class ResilientPaymentGateway implements PaymentGateway {
+
+    private final PaymentGateway delegate;
+    private final ThreadPoolExecutor bulkhead;
+    private final long callTimeoutMs;
+    private final int maxAttempts;
+    private final long retryBackoffMs;
+    private final long retryMaxBackoffMs;
+    private final CircuitBreaker circuitBreaker;
+
+    public ResilientPaymentGateway(PaymentGateway delegate, int concurrency, int queueCapacity, long callTimeoutMs,
+                                   int maxAttempts, long retryBackoffMs, long retryMaxBackoffMs,
+                                   int failureThreshold, long openDurationMs) {
+        this.delegate = delegate;
+        this.callTimeoutMs = callTimeoutMs;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoffMs = retryBackoffMs;
+        this.retryMaxBackoffMs = retryMaxBackoffMs;
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, openDurationMs);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.bulkhead = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "payment-gateway-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public GatewayChargeResult charge(GatewayChargeRequest request) {
+        // Once an attempt has reached the provider, a later rejection no longer means the card was not charged
+        boolean submitted = false;
+        for (int attempt = 1; ; attempt++) {
+            if (!circuitBreaker.allowRequest()) {
+                throw new PaymentGatewayException("Payment gateway is unavailable, please try again shortly",
+                        false, submitted, null);
+            }
+
+            Future<GatewayChargeResult> future;
+            try {
+                future = bulkhead.submit(() -> delegate.charge(request));
+            } catch (RejectedExecutionException e) {
+                // Shedding load is not a provider failure, so it must not trip the breaker
+                circuitBreaker.onIgnored();
+                throw new PaymentGatewayException("Payment gateway is busy, please try again shortly",
+                        false, submitted, e);
+            }
+            submitted = true;
+
+            try {
+                GatewayChargeResult result = awaitResult(future);
+                circuitBreaker.onSuccess();
+                return result;
+            } catch (PaymentGatewayException e) {
+                circuitBreaker.onFailure();
+                if (!e.isRetryable() || attempt >= maxAttempts) {
+                    throw e;
+                }
+                backoff(attempt);
+            }
+        }
+    }
+
+    // A single bounded attempt: callers reconcile in the background and simply ask again on their next run
+    @Override
+    public Optional<GatewayChargeResult> findCharge(String idempotencyKey) {
+        if (!circuitBreaker.allowRequest()) {
+            throw new PaymentGatewayException("Payment gateway is unavailable", false, false, null);
+        }
+        Future<Optional<GatewayChargeResult>> future;
+        try {
+            future = bulkhead.submit(() -> delegate.findCharge(idempotencyKey));
+        } catch (RejectedExecutionException e) {
+            circuitBreaker.onIgnored();
+            throw new PaymentGatewayException("Payment gateway is busy", false, false, e);
+        }
+        try {
+            Optional<GatewayChargeResult> result = awaitResult(future);
+            circuitBreaker.onSuccess();
+            return result;
+        } catch (PaymentGatewayException e) {
+            circuitBreaker.onFailure();
+            throw e;
+        }
+    }
+
+    private <T> T awaitResult(Future<T> future) {
+        try {
+            return future.get(callTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new PaymentGatewayException("Payment gateway timed out", true, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof PaymentGatewayException gatewayException) {
+                throw gatewayException;
+            }
+            throw new PaymentGatewayException("Payment gateway error: " + e.getCause().getMessage(), true, e.getCause());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PaymentGatewayException("Payment gateway call interrupted", false, e);
+        }
+    }
+
+    // Exponential backoff with full jitter so retries from many checkouts don't arrive in waves
+    private void backoff(int attempt) {
+        long ceiling = Math.min(retryMaxBackoffMs, retryBackoffMs << Math.min(attempt - 1, 20));
+        long sleep = ceiling > 0 ? ThreadLocalRandom.current().nextLong(ceiling + 1) : 0;
+        try {
+            Thread.sleep(sleep);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PaymentGatewayException("Payment gateway call interrupted", false, e);
+        }
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    public int getActiveCalls() {
+        return bulkhead.getActiveCount();
+    }
+
+    public int getQueuedCalls() {
+        return bulkhead.getQueue().size();
+    }
+
+    public void shutdown() {
+        bulkhead.shutdownNow();
+    }
+
+    /**
+     * Opens after {@code failureThreshold} consecutive failures, then lets a single trial call
+     * through once {@code openDurationMs} has passed.
+     */
+    public static class CircuitBreaker {
+
+        public enum State { CLOSED, OPEN, HALF_OPEN }
+
+        private final int failureThreshold;
+        private final long openDurationMs;
+
+        private State state = State.CLOSED;
+        private int consecutiveFailures;
+        private long openedAt;
+        private boolean trialInFlight;
+
+        public CircuitBreaker(int failureThreshold, long openDurationMs) {
+            this.failureThreshold = Math.max(1, failureThreshold);
+            this.openDurationMs = openDurationMs;
+        }
+
+        public synchronized boolean allowRequest() {
+            switch (state) {
+                case CLOSED:
+                    return true;
+                case OPEN:
+                    if (System.currentTimeMillis() - openedAt < openDurationMs) {
+                        return false;
+                    }
+                    state = State.HALF_OPEN;
+                    trialInFlight = true;
+                    return true;
+                default:
+                    if (trialInFlight) {
+                        return false;
+                    }
+                    trialInFlight = true;
+                    return true;
+            }
+        }
+
+        public synchronized void onSuccess() {
+            state = State.CLOSED;
+            consecutiveFailures = 0;
+            trialInFlight = false;
+        }
+
+        public synchronized void onFailure() {
+            trialInFlight = false;
+            if (state == State.HALF_OPEN || ++consecutiveFailures >= failureThreshold) {
+                state = State.OPEN;
+                openedAt = System.currentTimeMillis();
+                consecutiveFailures = 0;
+            }
+        }
+
+        public synchronized void onIgnored() {
+            trialInFlight = false;
+        }
+
+        public synchronized State getState() {
+            return state;
+        }
+    }
+}
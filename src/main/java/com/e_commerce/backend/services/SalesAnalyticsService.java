@@ -0,0 +1,180 @@
+package com.e_commerce.backend.services;
+
+import com.e_commerce.backend.dto.DailySalesDTO;
+import com.e_commerce.backend.dto.ProductSalesDTO;
+import com.e_commerce.backend.models.DailySalesRollup;
+import com.e_commerce.backend.models.Order;
+import com.e_commerce.backend.models.OrderItem;
+import com.e_commerce.backend.models.Product;
+import com.e_commerce.backend.models.ProductSalesRollup;
+import com.e_commerce.backend.money.Money;
+import com.e_commerce.backend.repositories.ArchivedOrderRepository;
+import com.e_commerce.backend.repositories.DailySalesRollupRepository;
+import com.e_commerce.backend.repositories.OrderRepository;
+import com.e_commerce.backend.repositories.ProductRepository;
+import com.e_commerce.backend.repositories.ProductSalesRollupRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the sales rollup tables up to date as orders complete, so reporting never scans orders or order_items.
+ */
+@Service
+public class SalesAnalyticsService {
+
+    private static final int MAX_TOP_PRODUCTS = 100;
+
+    @Autowired
+    private DailySalesRollupRepository dailySalesRollupRepository;
+
+    @Autowired
+    private ProductSalesRollupRepository productSalesRollupRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${analytics.rebuild.days-per-batch:7}")
+    private int rebuildDaysPerBatch;
+
+    @Value("${analytics.rebuild.products-per-batch:500}")
+    private int rebuildProductsPerBatch;
+
+    /**
+     * Adds a completed order to the rollups in the caller's transaction.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCompletedOrder(Order order, List<OrderItem> items) {
+        // Merge lines per product and upsert in product id order so concurrent checkouts lock rows in the same order
+        Map<Integer, long[]> unitsByProduct = new TreeMap<>();
+        Map<Integer, Money> revenueByProduct = new TreeMap<>();
+        long totalUnits = 0;
+        for (OrderItem item : items) {
+            int productId = item.getProduct().getId();
+            Money price = item.getPrice() == null ? Money.ZERO : item.getPrice();
+            Money discount = item.getDiscount() == null ? Money.ZERO : item.getDiscount();
+            unitsByProduct.computeIfAbsent(productId, id -> new long[1])[0] += item.getQuantity();
+            revenueByProduct.merge(productId, price.times(item.getQuantity()).minus(discount), Money::plus);
+            totalUnits += item.getQuantity();
+        }
+
+        for (Map.Entry<Integer, long[]> entry : unitsByProduct.entrySet()) {
+            productSalesRollupRepository.addSale(entry.getKey(), entry.getValue()[0],
+                    revenueByProduct.get(entry.getKey()).toBigDecimal());
+        }
+
+        // The daily row is the most contended one, so touch it last to hold its lock as briefly as possible
+        Money revenue = order.getTotalAmount() == null ? Money.ZERO : order.getTotalAmount();
+        dailySalesRollupRepository.addOrder(order.getOrderDate().toLocalDate(), totalUnits, revenue.toBigDecimal());
+    }
+
+    public List<DailySalesDTO> getDailyRevenue(LocalDate from, LocalDate to) {
+        return dailySalesRollupRepository.findBySalesDateBetweenOrderBySalesDateAsc(from, to).stream()
+                .map(rollup -> new DailySalesDTO(rollup.getSalesDate(), rollup.getOrderCount(),
+                        rollup.getUnitsSold(), rollup.getRevenue()))
+                .collect(Collectors.toList());
+    }
+
+    public List<ProductSalesDTO> getProductSales(int page, int size) {
+        return toProductSalesDTOs(productSalesRollupRepository.findAllByOrderByUnitsSoldDesc(PageRequest.of(page, size)));
+    }
+
+    public List<ProductSalesDTO> getTopProducts(int limit) {
+        int n = Math.max(1, Math.min(limit, MAX_TOP_PRODUCTS));
+        return toProductSalesDTOs(productSalesRollupRepository.findAllByOrderByUnitsSoldDesc(PageRequest.of(0, n)));
+    }
+
+    /**
+     * Recomputes both rollups from the live and archived order tables. This is the only place that scans them.
+     * Each range of days or product ids is one short transaction that locks just its own rollup rows before
+     * reading the orders. A checkout completing meanwhile is either already committed and counted, or waits
+     * on those rows and adds itself once the range is written; other ranges are never blocked.
+     */
+    public void rebuild() {
+        LocalDate first = firstSalesDate();
+        LocalDate end = LocalDate.now().plusDays(1);
+        for (LocalDate from = first; from != null && from.isBefore(end); from = from.plusDays(rebuildDaysPerBatch)) {
+            LocalDate rangeStart = from;
+            LocalDate rangeEnd = from.plusDays(rebuildDaysPerBatch);
+            transactionTemplate.executeWithoutResult(status -> rebuildDays(rangeStart, rangeEnd));
+        }
+
+        int maxProductId = productSalesRollupRepository.findMaxProductId();
+        for (int from = 0; from <= maxProductId; from += rebuildProductsPerBatch) {
+            int rangeStart = from;
+            int rangeEnd = from + rebuildProductsPerBatch;
+            transactionTemplate.executeWithoutResult(status -> rebuildProducts(rangeStart, rangeEnd));
+        }
+    }
+
+    private void rebuildDays(LocalDate from, LocalDate to) {
+        dailySalesRollupRepository.insertMissingDays(from.atStartOfDay(), to.atStartOfDay());
+        List<LocalDate> days = dailySalesRollupRepository.lockDays(from, to).stream()
+                .map(DailySalesRollup::getSalesDate)
+                .toList();
+        if (!days.isEmpty()) {
+            dailySalesRollupRepository.deleteDays(days);
+            dailySalesRollupRepository.rebuildDays(from.atStartOfDay(), to.atStartOfDay(), days);
+        }
+    }
+
+    private void rebuildProducts(int from, int to) {
+        productSalesRollupRepository.insertMissingProducts(from, to);
+        List<Integer> productIds = productSalesRollupRepository.lockProducts(from, to).stream()
+                .map(ProductSalesRollup::getProductId)
+                .toList();
+        if (!productIds.isEmpty()) {
+            productSalesRollupRepository.deleteProducts(productIds);
+            productSalesRollupRepository.rebuildProducts(productIds);
+        }
+    }
+
+    // Earliest day that has a rollup row or a completed order, live or archived; null when there are none
+    private LocalDate firstSalesDate() {
+        LocalDate first = dailySalesRollupRepository.findFirstSalesDate();
+        for (LocalDateTime orderDate : new LocalDateTime[]{orderRepository.findFirstCompletedOrderDate(),
+                archivedOrderRepository.findFirstCompletedOrderDate()}) {
+            if (orderDate != null && (first == null || orderDate.toLocalDate().isBefore(first))) {
+                first = orderDate.toLocalDate();
+            }
+        }
+        return first;
+    }
+
+    private List<ProductSalesDTO> toProductSalesDTOs(List<ProductSalesRollup> rollups) {
+        // One batched lookup for the product names
+        Map<Integer, Product> products = productRepository
+                .findAllById(rollups.stream().map(ProductSalesRollup::getProductId).toList()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        return rollups.stream()
+                .map(rollup -> {
+                    Product product = products.get(rollup.getProductId());
+                    return new ProductSalesDTO(rollup.getProductId(),
+                            product != null ? product.getName() : null,
+                            rollup.getUnitsSold(), rollup.getOrderCount(), rollup.getRevenue());
+                })
+                .collect(Collectors.toList());
+    }
+}
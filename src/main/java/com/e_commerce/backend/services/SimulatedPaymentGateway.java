@@ -0,0 +1,97 @@
+package com.e_commerce.backend.services;
+
+import com.e_commerce.backend.dto.GatewayChargeRequest;
+import com.e_commerce.backend.dto.GatewayChargeResult;
+import com.e_commerce.backend.exception.PaymentGatewayException;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Local stand-in for a card provider used for development and load tests.
+ * Latency, provider errors, hangs and declines are injected according to the configured rates,
+ * so checkout throughput can be measured under gateway degradation without any external service.
+ * Card numbers ending in 0002 are always declined.
+ */
+public class SimulatedPaymentGateway implements PaymentGateway {
+
+    private static final int IDEMPOTENCY_CACHE_SIZE = 10_000;
+
+    private final long latencyMs;
+    private final long latencyJitterMs;
+    private final double failureRate;
+    private final double hangRate;
+    private final long hangMs;
+    private final double declineRate;
+
+    // Replayed answers for retried requests, like a real provider's idempotency keys
+    private final Map<String, GatewayChargeResult> processed = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, GatewayChargeResult> eldest) {
+                    return size() > IDEMPOTENCY_CACHE_SIZE;
+                }
+            });
+
+    public SimulatedPaymentGateway(long latencyMs, long latencyJitterMs, double failureRate,
+                                   double hangRate, long hangMs, double declineRate) {
+        this.latencyMs = latencyMs;
+        this.latencyJitterMs = latencyJitterMs;
+        this.failureRate = failureRate;
+        this.hangRate = hangRate;
+        this.hangMs = hangMs;
+        this.declineRate = declineRate;
+    }
+
+    @Override
+    public GatewayChargeResult charge(GatewayChargeRequest request) {
+        GatewayChargeResult previous = processed.get(request.getIdempotencyKey());
+        if (previous != null) {
+            return previous;
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long delay = latencyMs + (latencyJitterMs > 0 ? random.nextLong(latencyJitterMs + 1) : 0);
+        if (random.nextDouble() < hangRate) {
+            delay += hangMs;
+        }
+        sleep(delay);
+
+        if (random.nextDouble() < failureRate) {
+            throw new PaymentGatewayException("Simulated gateway error", true);
+        }
+
+        GatewayChargeResult result;
+        String cardNumber = request.getCardNumber() == null ? "" : request.getCardNumber();
+        if (cardNumber.endsWith("0002") || random.nextDouble() < declineRate) {
+            result = GatewayChargeResult.declined("Card declined");
+        } else {
+            result = GatewayChargeResult.approved("sim_" + UUID.randomUUID());
+        }
+
+        processed.put(request.getIdempotencyKey(), result);
+        return result;
+    }
+
+    @Override
+    public Optional<GatewayChargeResult> findCharge(String idempotencyKey) {
+        return Optional.ofNullable(processed.get(idempotencyKey));
+    }
+
+    private void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            // The resilient wrapper cancels timed-out calls by interrupting them
+            Thread.currentThread().interrupt();
+            throw new PaymentGatewayException("Simulated gateway call interrupted", true, e);
+        }
+    }
+}
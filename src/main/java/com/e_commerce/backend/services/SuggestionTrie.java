@@ -0,0 +1,186 @@
+package com.e_commerce.backend.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Prefix tree over normalised terms. Children are kept in sorted parallel arrays, and every node caches the best
+ * {@code k} entries of its subtree, so a lookup is a walk down the prefix plus a copy of at most k entries.
+ * Inserts and removals recompute those caches only along the touched path. Not thread-safe; callers synchronise.
+ */
+final class SuggestionTrie<T> {
+
+    record Entry<T>(T value, long weight, String text) {
+    }
+
+    private static final char[] NO_KEYS = new char[0];
+
+    private final int k;
+    private final Comparator<Entry<T>> order = Comparator.<Entry<T>>comparingLong(Entry::weight).reversed()
+            .thenComparing(Entry::text);
+    private final Node<T> root = new Node<>();
+
+    private static final class Node<T> {
+        char[] keys = NO_KEYS;
+        @SuppressWarnings("unchecked")
+        Node<T>[] children = new Node[0];
+        List<Entry<T>> entries; // entries whose term ends here
+        List<Entry<T>> top = List.of();
+    }
+
+    SuggestionTrie(int k) {
+        this.k = k;
+    }
+
+    void add(String term, Entry<T> entry) {
+        recompute(insert(term, entry));
+    }
+
+    // For bulk loads: call recomputeAll() once afterwards
+    void addWithoutRecompute(String term, Entry<T> entry) {
+        insert(term, entry);
+    }
+
+    void recomputeAll() {
+        recomputeSubtree(root);
+    }
+
+    private List<Node<T>> insert(String term, Entry<T> entry) {
+        List<Node<T>> path = new ArrayList<>(term.length() + 1);
+        Node<T> node = root;
+        path.add(node);
+        for (int i = 0; i < term.length(); i++) {
+            node = childOrCreate(node, term.charAt(i));
+            path.add(node);
+        }
+        if (node.entries == null) {
+            node.entries = new ArrayList<>(1);
+        }
+        node.entries.add(entry);
+        return path;
+    }
+
+    // Removes every entry with this value under the term
+    void remove(String term, T value) {
+        List<Node<T>> path = new ArrayList<>(term.length() + 1);
+        Node<T> node = root;
+        path.add(node);
+        for (int i = 0; i < term.length() && node != null; i++) {
+            node = child(node, term.charAt(i));
+            if (node != null) {
+                path.add(node);
+            }
+        }
+        if (node == null || node.entries == null) {
+            return;
+        }
+        node.entries.removeIf(entry -> entry.value().equals(value));
+        if (node.entries.isEmpty()) {
+            node.entries = null;
+        }
+        prune(path, term);
+        recompute(path);
+    }
+
+    List<Entry<T>> top(String prefix, int limit) {
+        Node<T> node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = child(node, prefix.charAt(i));
+        }
+        if (node == null) {
+            return List.of();
+        }
+        return node.top.size() <= limit ? node.top : node.top.subList(0, limit);
+    }
+
+    private void recomputeSubtree(Node<T> node) {
+        for (Node<T> child : node.children) {
+            recomputeSubtree(child);
+        }
+        recomputeNode(node);
+    }
+
+    private void recompute(List<Node<T>> path) {
+        for (int i = path.size() - 1; i >= 0; i--) {
+            recomputeNode(path.get(i));
+        }
+    }
+
+    private void recomputeNode(Node<T> node) {
+        List<Entry<T>> candidates = new ArrayList<>();
+        if (node.entries != null) {
+            candidates.addAll(node.entries);
+        }
+        for (Node<T> child : node.children) {
+            candidates.addAll(child.top);
+        }
+        // The same value can be reachable through several terms of one subtree
+        node.top = candidates.stream()
+                .sorted(order)
+                .filter(distinctValues())
+                .limit(k)
+                .toList();
+    }
+
+    private static <T> Predicate<Entry<T>> distinctValues() {
+        Set<T> seen = new HashSet<>();
+        return entry -> seen.add(entry.value());
+    }
+
+    // Drops nodes left without entries or children, bottom-up
+    private void prune(List<Node<T>> path, String term) {
+        for (int i = path.size() - 1; i > 0; i--) {
+            Node<T> node = path.get(i);
+            if (node.entries != null || node.children.length > 0) {
+                return;
+            }
+            Node<T> parent = path.get(i - 1);
+            int index = Arrays.binarySearch(parent.keys, term.charAt(i - 1));
+            parent.keys = removeAt(parent.keys, index);
+            parent.children = removeAt(parent.children, index);
+            path.remove(i);
+        }
+    }
+
+    private Node<T> child(Node<T> node, char c) {
+        int index = Arrays.binarySearch(node.keys, c);
+        return index >= 0 ? node.children[index] : null;
+    }
+
+    private Node<T> childOrCreate(Node<T> node, char c) {
+        int index = Arrays.binarySearch(node.keys, c);
+        if (index >= 0) {
+            return node.children[index];
+        }
+        int insertAt = -index - 1;
+        Node<T> child = new Node<>();
+        char[] keys = new char[node.keys.length + 1];
+        System.arraycopy(node.keys, 0, keys, 0, insertAt);
+        keys[insertAt] = c;
+        System.arraycopy(node.keys, insertAt, keys, insertAt + 1, node.keys.length - insertAt);
+        Node<T>[] children = Arrays.copyOf(node.children, node.children.length + 1);
+        System.arraycopy(node.children, insertAt, children, insertAt + 1, node.children.length - insertAt);
+        children[insertAt] = child;
+        node.keys = keys;
+        node.children = children;
+        return child;
+    }
+
+    private static char[] removeAt(char[] array, int index) {
+        char[] result = new char[array.length - 1];
+        System.arraycopy(array, 0, result, 0, index);
+        System.arraycopy(array, index + 1, result, index, array.length - index - 1);
+        return result;
+    }
+
+    private static <N> N[] removeAt(N[] array, int index) {
+        N[] result = Arrays.copyOf(array, array.length - 1);
+        System.arraycopy(array, index + 1, result, index, array.length - index - 1);
+        return result;
+    }
+}
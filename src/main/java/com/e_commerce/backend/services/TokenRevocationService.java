@@ -0,0 +1,94 @@
+package com.e_commerce.backend.services;
+
+import com.e_commerce.backend.models.RevokedToken;
+import com.e_commerce.backend.repositories.RevokedTokenRepository;
+import com.e_commerce.backend.security.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Revoked token ids (jti). The revoked_tokens table is the source of truth and is shared by all nodes;
+ * an in-memory Bloom filter in front of it answers "definitely not revoked" for almost every request
+ * without touching the database. Only Bloom hits (revoked tokens and rare false positives) are checked in the table.
+ */
+@Service
+public class TokenRevocationService {
+
+    // Overlap between syncs so revocations committed slightly out of order are not missed
+    private static final long SYNC_OVERLAP_SECONDS = 5;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Value("${token.revocation.bloom.expected-insertions:100000}")
+    private long expectedInsertions;
+
+    @Value("${token.revocation.bloom.false-positive-rate:0.001}")
+    private double falsePositiveRate;
+
+    private final AtomicReference<BloomFilter> bloomFilter = new AtomicReference<>();
+    private volatile LocalDateTime lastSync;
+
+    @PostConstruct
+    void init() {
+        rebuild();
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null) {
+            return false;
+        }
+        if (!bloomFilter.get().mightContain(jti)) {
+            return false;
+        }
+        return revokedTokenRepository.existsByJtiAndExpiresAtAfter(jti, LocalDateTime.now());
+    }
+
+    @Transactional
+    public void revoke(String jti, Date expiresAt) {
+        if (jti == null || expiresAt == null || expiresAt.before(new Date())) {
+            return;
+        }
+        LocalDateTime expiry = LocalDateTime.ofInstant(expiresAt.toInstant(), ZoneId.systemDefault());
+        revokedTokenRepository.save(new RevokedToken(jti, expiry, LocalDateTime.now()));
+        bloomFilter.get().add(jti);
+    }
+
+    // Picks up revocations made on other nodes. Synchronized with the rebuild, which runs on another scheduler
+    // thread, so a sync cannot add to a filter that is being replaced and lose those entries
+    @Scheduled(fixedDelayString = "${token.revocation.sync-interval-ms:5000}")
+    public synchronized void syncFromDatabase() {
+        LocalDateTime now = LocalDateTime.now();
+        List<String> jtis = revokedTokenRepository.findJtisRevokedSince(lastSync.minusSeconds(SYNC_OVERLAP_SECONDS), now);
+        BloomFilter filter = bloomFilter.get();
+        jtis.forEach(filter::add);
+        lastSync = now;
+    }
+
+    // Bloom filters can't forget, so expired entries are dropped by building a fresh filter and swapping it in
+    @Scheduled(cron = "${token.revocation.rebuild-cron:0 15 * * * *}")
+    @Transactional
+    public synchronized void purgeAndRebuild() {
+        revokedTokenRepository.deleteExpired(LocalDateTime.now());
+        rebuild();
+    }
+
+    private void rebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        List<String> active = revokedTokenRepository.findActiveJtis(now);
+        BloomFilter filter = new BloomFilter(Math.max(expectedInsertions, active.size() * 2L), falsePositiveRate);
+        active.forEach(filter::add);
+        bloomFilter.set(filter);
+        lastSync = now;
+    }
+}
@@ -0,0 +1,96 @@
+package com.e_commerce.backend.services;
+
+import com.e_commerce.backend.dto.AvailabilityResponse;
+import com.e_commerce.backend.repositories.UserRepository;
+import com.e_commerce.backend.security.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Username/email availability for registration and the signup form.
+ * Bloom filters over normalised usernames and emails answer "definitely free" for most lookups without
+ * a query; only possible matches are confirmed in Postgres. The unique constraints remain the final authority.
+ */
+@Service
+public class UserAvailabilityService {
+
+    private record Filters(BloomFilter usernames, BloomFilter emails) {
+    }
+
+    // Overlap between syncs so users committed slightly out of order are not missed
+    private static final long SYNC_OVERLAP_SECONDS = 5;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${users.availability.bloom.expected-insertions:1000000}")
+    private long expectedInsertions;
+
+    @Value("${users.availability.bloom.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    private final AtomicReference<Filters> filters = new AtomicReference<>();
+    private volatile LocalDateTime lastSync;
+
+    @PostConstruct
+    void init() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = userRepository.findAllUsernamesAndEmails();
+        long expected = Math.max(expectedInsertions, rows.size() * 2L);
+        Filters loaded = new Filters(new BloomFilter(expected, falsePositiveRate), new BloomFilter(expected, falsePositiveRate));
+        rows.forEach(row -> add(loaded, (String) row[0], (String) row[1]));
+        filters.set(loaded);
+        lastSync = now;
+    }
+
+    public AvailabilityResponse check(String username, String email) {
+        Boolean usernameAvailable = username == null || username.isBlank() ? null : isUsernameAvailable(username);
+        Boolean emailAvailable = email == null || email.isBlank() ? null : isEmailAvailable(email);
+        return new AvailabilityResponse(usernameAvailable, emailAvailable);
+    }
+
+    public boolean isUsernameAvailable(String username) {
+        return !filters.get().usernames().mightContain(normalise(username))
+                || !userRepository.existsByUsername(username);
+    }
+
+    public boolean isEmailAvailable(String email) {
+        return !filters.get().emails().mightContain(normalise(email))
+                || !userRepository.existsByEmail(email);
+    }
+
+    public void registered(String username, String email) {
+        add(filters.get(), username, email);
+    }
+
+    // Picks up users registered on other nodes
+    @Scheduled(fixedDelayString = "${users.availability.sync-interval-ms:10000}")
+    public void syncFromDatabase() {
+        LocalDateTime now = LocalDateTime.now();
+        Filters current = filters.get();
+        userRepository.findUsernamesAndEmailsCreatedSince(lastSync.minusSeconds(SYNC_OVERLAP_SECONDS))
+                .forEach(row -> add(current, (String) row[0], (String) row[1]));
+        lastSync = now;
+    }
+
+    private static void add(Filters target, String username, String email) {
+        if (username != null) {
+            target.usernames().add(normalise(username));
+        }
+        if (email != null) {
+            target.emails().add(normalise(email));
+        }
+    }
+
+    private static String normalise(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
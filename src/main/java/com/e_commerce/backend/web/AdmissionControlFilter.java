@@ -0,0 +1,110 @@
+package com.e_commerce.backend.web;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Sheds checkout and cart writes with 503 + Retry-After once their adaptive concurrency limit is reached,
+ * instead of letting them queue for a DB connection until clients time out.
+ * Each endpoint class has its own limiter, and reads are never limited.
+ */
+@Component
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private final AimdConcurrencyLimiter checkoutLimiter;
+    private final AimdConcurrencyLimiter cartWriteLimiter;
+    private final int retryAfterSeconds;
+
+    public AdmissionControlFilter(
+            MeterRegistry meterRegistry,
+            @Value("${admission.checkout.initial-limit:20}") int checkoutInitialLimit,
+            @Value("${admission.checkout.min-limit:2}") int checkoutMinLimit,
+            @Value("${admission.checkout.max-limit:100}") int checkoutMaxLimit,
+            @Value("${admission.checkout.latency-threshold-ms:2000}") long checkoutLatencyThresholdMs,
+            @Value("${admission.cart.initial-limit:40}") int cartInitialLimit,
+            @Value("${admission.cart.min-limit:4}") int cartMinLimit,
+            @Value("${admission.cart.max-limit:200}") int cartMaxLimit,
+            @Value("${admission.cart.latency-threshold-ms:500}") long cartLatencyThresholdMs,
+            @Value("${admission.backoff-ratio:0.9}") double backoffRatio,
+            @Value("${admission.retry-after-seconds:1}") int retryAfterSeconds) {
+        this.checkoutLimiter = new AimdConcurrencyLimiter("checkout", checkoutInitialLimit, checkoutMinLimit,
+                checkoutMaxLimit, checkoutLatencyThresholdMs, backoffRatio);
+        this.cartWriteLimiter = new AimdConcurrencyLimiter("cart-write", cartInitialLimit, cartMinLimit,
+                cartMaxLimit, cartLatencyThresholdMs, backoffRatio);
+        this.retryAfterSeconds = retryAfterSeconds;
+
+        registerMetrics(meterRegistry, checkoutLimiter);
+        registerMetrics(meterRegistry, cartWriteLimiter);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        AimdConcurrencyLimiter limiter = limiterFor(request);
+        if (limiter == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if (!limiter.tryAcquire()) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"message\":\"Server is busy, please try again shortly\"}");
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = response.getStatus() >= 500;
+        } finally {
+            limiter.release(System.nanoTime() - start, failed);
+        }
+    }
+
+    private AimdConcurrencyLimiter limiterFor(HttpServletRequest request) {
+        String method = request.getMethod();
+        if ("GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method)) {
+            return null;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.equals("/api/payment/process")) {
+            return checkoutLimiter;
+        }
+        if (path.equals("/api/cart") || path.startsWith("/api/cart/")) {
+            return cartWriteLimiter;
+        }
+        return null;
+    }
+
+    private static void registerMetrics(MeterRegistry registry, AimdConcurrencyLimiter limiter) {
+        Gauge.builder("admission.limit", limiter, AimdConcurrencyLimiter::getLimit)
+                .tag("endpoint", limiter.getName())
+                .register(registry);
+        Gauge.builder("admission.inflight", limiter, AimdConcurrencyLimiter::getInFlight)
+                .tag("endpoint", limiter.getName())
+                .register(registry);
+        FunctionCounter.builder("admission.accepted", limiter, AimdConcurrencyLimiter::getAccepted)
+                .tag("endpoint", limiter.getName())
+                .register(registry);
+        FunctionCounter.builder("admission.rejected", limiter, AimdConcurrencyLimiter::getRejected)
+                .tag("endpoint", limiter.getName())
+                .register(registry);
+    }
+}
@@ -0,0 +1,100 @@
+package com.e_commerce.backend.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A response body serialised once, with a gzip variant precomputed when it is large enough to be worth it.
+ * Instances are immutable and shared by every request that writes them.
+ */
+public final class EncodedJson {
+
+    private static final int GZIP_MIN_BYTES = 1024;
+
+    private final byte[] json;
+    private final byte[] gzip;
+
+    private EncodedJson(byte[] json) {
+        this.json = json;
+        this.gzip = json.length >= GZIP_MIN_BYTES ? gzip(json) : null;
+    }
+
+    public static EncodedJson of(ObjectMapper objectMapper, Object value) throws IOException {
+        return new EncodedJson(objectMapper.writeValueAsBytes(value));
+    }
+
+    // Builds a JSON array from already encoded elements without running Jackson again
+    public static EncodedJson array(List<EncodedJson> elements) {
+        int length = 2 + Math.max(0, elements.size() - 1);
+        for (EncodedJson element : elements) {
+            length += element.json.length;
+        }
+        byte[] bytes = new byte[length];
+        int pos = 0;
+        bytes[pos++] = '[';
+        for (int i = 0; i < elements.size(); i++) {
+            if (i > 0) {
+                bytes[pos++] = ',';
+            }
+            byte[] element = elements.get(i).json;
+            System.arraycopy(element, 0, bytes, pos, element.length);
+            pos += element.length;
+        }
+        bytes[pos] = ']';
+        return new EncodedJson(bytes);
+    }
+
+    public ResponseEntity<byte[]> write(ResponseEntity.BodyBuilder response, String acceptEncoding) {
+        return write(response, null, acceptEncoding);
+    }
+
+    // The two variants are different bytes, so each carries its own strong tag
+    public ResponseEntity<byte[]> write(ResponseEntity.BodyBuilder response, String etag, String acceptEncoding) {
+        response.contentType(MediaType.APPLICATION_JSON).header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip != null && acceptsGzip(acceptEncoding)) {
+            if (etag != null) {
+                response.eTag(gzipTag(etag));
+            }
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(gzip);
+        }
+        if (etag != null) {
+            response.eTag(etag);
+        }
+        return response.body(json);
+    }
+
+    public static String gzipTag(String etag) {
+        return etag.substring(0, etag.length() - 1) + "-gz\"";
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream gzipOut = new GZIPOutputStream(out)) {
+            gzipOut.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,109 @@
+package com.e_commerce.backend.benchmarks;
+
+import com.e_commerce.backend.money.Money;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cart and order totals in BigDecimal (the previous code) versus {@link Money}. Run the main method after
+ * {@code mvn test-compile}; it adds the GC profiler, whose gc.alloc.rate.norm column is bytes allocated per cart.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyArithmeticBenchmark {
+
+    @Param({"5", "50", "200"})
+    private int lines;
+
+    private BigDecimal[] decimalPrices;
+    private Money[] moneyPrices;
+    private int[] quantities;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        decimalPrices = new BigDecimal[lines];
+        moneyPrices = new Money[lines];
+        quantities = new int[lines];
+        for (int i = 0; i < lines; i++) {
+            long cents = 100 + random.nextInt(50_000);
+            decimalPrices[i] = BigDecimal.valueOf(cents, 2);
+            moneyPrices[i] = Money.ofMinor(cents);
+            quantities[i] = 1 + random.nextInt(5);
+        }
+    }
+
+    // Line totals and cart total as CartService built them: one multiply and one add per line, then 10% off
+    @Benchmark
+    public BigDecimal cartTotalBigDecimal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < lines; i++) {
+            total = total.add(decimalPrices[i].multiply(BigDecimal.valueOf(quantities[i])));
+        }
+        BigDecimal discount = total.multiply(BigDecimal.TEN).divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
+        return total.subtract(discount);
+    }
+
+    @Benchmark
+    public Money cartTotalMoney() {
+        Money total = Money.ZERO;
+        for (int i = 0; i < lines; i++) {
+            total = total.plus(moneyPrices[i].times(quantities[i]));
+        }
+        return total.minus(total.percentage(1000, RoundingMode.HALF_UP));
+    }
+
+    // How PromotionEngine prices carts: accumulate minor units, wrap the results once
+    @Benchmark
+    public Money cartTotalMinorUnits() {
+        long total = 0;
+        for (int i = 0; i < lines; i++) {
+            total = Math.addExact(total, Math.multiplyExact(moneyPrices[i].minorUnits(), quantities[i]));
+        }
+        return Money.ofMinor(total - Money.divide(total * 1000, 10_000, RoundingMode.HALF_UP));
+    }
+
+    // Per-line totals kept for the order items, plus the order total
+    @Benchmark
+    public BigDecimal orderTotalsBigDecimal(Blackhole blackhole) {
+        BigDecimal[] lineTotals = new BigDecimal[lines];
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < lines; i++) {
+            lineTotals[i] = decimalPrices[i].multiply(BigDecimal.valueOf(quantities[i]));
+            total = total.add(lineTotals[i]);
+        }
+        blackhole.consume(lineTotals);
+        return total;
+    }
+
+    @Benchmark
+    public Money orderTotalsMoney(Blackhole blackhole) {
+        Money[] lineTotals = new Money[lines];
+        Money total = Money.ZERO;
+        for (int i = 0; i < lines; i++) {
+            lineTotals[i] = moneyPrices[i].times(quantities[i]);
+            total = total.plus(lineTotals[i]);
+        }
+        blackhole.consume(lineTotals);
+        return total;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MoneyArithmeticBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
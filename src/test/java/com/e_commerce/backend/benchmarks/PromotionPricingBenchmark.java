@@ -0,0 +1,139 @@
+package com.e_commerce.backend.benchmarks;
+
+import com.e_commerce.backend.models.Promotion;
+import com.e_commerce.backend.money.Money;
+import com.e_commerce.backend.services.PromotionEngine;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cart pricing through the compiled rule index versus checking every active rule against every line.
+ * Run the main method after {@code mvn test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PromotionPricingBenchmark {
+
+    private static final int PRODUCTS = 20_000;
+    private static final int CATEGORIES = 200;
+
+    @Param({"1", "10", "50", "200"})
+    private int lines;
+
+    @Param({"1000", "5000"})
+    private int rules;
+
+    private PromotionEngine engine;
+    private List<Promotion> promotions;
+    private List<PromotionEngine.Line> cart;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        promotions = new ArrayList<>(rules);
+        for (int i = 0; i < rules; i++) {
+            Promotion promotion = new Promotion();
+            promotion.setId((long) i + 1);
+            promotion.setName("promo-" + i);
+            promotion.setActive(true);
+            int kind = i % 20;
+            if (kind == 0) {
+                promotion.setScope(Promotion.Scope.CART);
+                promotion.setType(Promotion.Type.AMOUNT_OFF);
+                promotion.setAmountOff(Money.ofMinor(500 + random.nextInt(2000)));
+                promotion.setMinSubtotal(Money.ofMinor(5000 + random.nextInt(50000)));
+            } else if (kind < 5) {
+                promotion.setScope(Promotion.Scope.CATEGORY);
+                promotion.setCategory("category-" + random.nextInt(CATEGORIES));
+                promotion.setType(Promotion.Type.PERCENT_OFF);
+                promotion.setPercentOff(BigDecimal.valueOf(5 + random.nextInt(30)));
+            } else if (kind < 8) {
+                promotion.setScope(Promotion.Scope.PRODUCT);
+                promotion.setProductId(random.nextInt(PRODUCTS));
+                promotion.setType(Promotion.Type.BUY_X_GET_Y);
+                promotion.setBuyQuantity(2);
+                promotion.setGetQuantity(1);
+            } else {
+                promotion.setScope(Promotion.Scope.PRODUCT);
+                promotion.setProductId(random.nextInt(PRODUCTS));
+                promotion.setType(Promotion.Type.AMOUNT_OFF);
+                promotion.setAmountOff(Money.ofMinor(100 + random.nextInt(1000)));
+                promotion.setMinQuantity(1 + random.nextInt(3));
+            }
+            promotions.add(promotion);
+        }
+        engine = new PromotionEngine();
+        engine.install(promotions);
+
+        cart = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            int productId = random.nextInt(PRODUCTS);
+            cart.add(new PromotionEngine.Line(productId, "category-" + productId % CATEGORIES,
+                    Money.ofMinor(1000 + random.nextInt(20000)), 1 + random.nextInt(5)));
+        }
+    }
+
+    @Benchmark
+    public PromotionEngine.Pricing indexed() {
+        return engine.price(cart);
+    }
+
+    @Benchmark
+    public long scanAllRules() {
+        // Best line rule found by testing every promotion, then the best cart rule
+        long subtotal = 0;
+        long discount = 0;
+        for (PromotionEngine.Line line : cart) {
+            long unitPrice = line.unitPrice().minorUnits();
+            long lineSubtotal = unitPrice * line.quantity();
+            long best = 0;
+            for (Promotion promotion : promotions) {
+                boolean applies = switch (promotion.getScope()) {
+                    case PRODUCT -> promotion.getProductId() == line.productId();
+                    case CATEGORY -> promotion.getCategory().equals(line.category());
+                    case CART -> false;
+                };
+                if (!applies || (promotion.getMinQuantity() != null && line.quantity() < promotion.getMinQuantity())) {
+                    continue;
+                }
+                long candidate = switch (promotion.getType()) {
+                    case PERCENT_OFF -> Money.divide(lineSubtotal * promotion.getPercentOff().movePointRight(2).longValue(),
+                            10_000, RoundingMode.HALF_UP);
+                    case AMOUNT_OFF -> Math.min(promotion.getAmountOff().minorUnits(), unitPrice) * line.quantity();
+                    case BUY_X_GET_Y -> unitPrice * (line.quantity()
+                            / (promotion.getBuyQuantity() + promotion.getGetQuantity()) * promotion.getGetQuantity());
+                };
+                best = Math.max(best, Math.min(candidate, lineSubtotal));
+            }
+            subtotal += lineSubtotal;
+            discount += best;
+        }
+        long net = subtotal - discount;
+        long cartDiscount = 0;
+        for (Promotion promotion : promotions) {
+            if (promotion.getScope() == Promotion.Scope.CART && net >= promotion.getMinSubtotal().minorUnits()) {
+                cartDiscount = Math.max(cartDiscount, Math.min(promotion.getAmountOff().minorUnits(), net));
+            }
+        }
+        return net - cartDiscount;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PromotionPricingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
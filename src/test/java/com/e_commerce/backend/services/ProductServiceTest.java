@@ -0,0 +1,89 @@
+package com.e_commerce.backend.services;
+
+import com.e_commerce.backend.models.Product;
+import com.e_commerce.backend.repositories.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductServiceTest {
+
+    private static final int CALLERS = 50;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private ProductService productService;
+
+    @Test
+    void concurrentMissesForOneProductRunOneQuery() throws Exception {
+        Product product = new Product();
+        product.setId(7);
+        CountDownLatch queryStarted = new CountDownLatch(1);
+        CountDownLatch releaseQuery = new CountDownLatch(1);
+        when(productRepository.findById(7)).thenAnswer(invocation -> {
+            queryStarted.countDown();
+            releaseQuery.await();
+            return Optional.of(product);
+        });
+
+        List<Thread> callerThreads = new ArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(CALLERS, runnable -> {
+            Thread thread = new Thread(runnable);
+            callerThreads.add(thread);
+            return thread;
+        });
+        try {
+            List<Future<Product>> results = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(pool.submit(() -> productService.getProductById(7)));
+            }
+
+            // Hold the one query open until every other caller is parked on it
+            assertTrue(queryStarted.await(5, TimeUnit.SECONDS));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (callerThreads.size() < CALLERS
+                    || callerThreads.stream().anyMatch(t -> t.getState() == Thread.State.RUNNABLE || t.getState() == Thread.State.NEW)) {
+                assertTrue(System.nanoTime() < deadline, "callers did not reach the in-flight load");
+                Thread.sleep(5);
+            }
+            releaseQuery.countDown();
+
+            for (Future<Product> result : results) {
+                assertSame(product, result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        verify(productRepository, times(1)).findById(7);
+    }
+
+    @Test
+    void missingProductStillThrows() {
+        when(productRepository.findById(8)).thenReturn(Optional.empty());
+
+        assertThrows(NoSuchElementException.class, () -> productService.getProductById(8));
+    }
+}
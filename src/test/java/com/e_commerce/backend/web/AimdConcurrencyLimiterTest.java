@@ -0,0 +1,67 @@
+package com.e_commerce.backend.web;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AimdConcurrencyLimiterTest {
+
+    private static final long THRESHOLD_MS = 10;
+    private static final double BACKOFF_RATIO = 0.9;
+
+    @Test
+    void slowRequestsInFlightTogetherCutTheLimitOnce() throws Exception {
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter("test", 100, 1, 200, THRESHOLD_MS, BACKOFF_RATIO);
+        long started = System.nanoTime();
+        for (int i = 0; i < 40; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        TimeUnit.MILLISECONDS.sleep(THRESHOLD_MS * 2);
+
+        for (int i = 0; i < 40; i++) {
+            limiter.release(System.nanoTime() - started, false);
+        }
+
+        assertEquals(90, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void slowRequestStartedAfterACutCutsAgain() throws Exception {
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter("test", 100, 1, 200, THRESHOLD_MS, BACKOFF_RATIO);
+        long firstStarted = System.nanoTime();
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        TimeUnit.MILLISECONDS.sleep(THRESHOLD_MS * 2);
+        limiter.release(System.nanoTime() - firstStarted, false);
+        assertEquals(90, limiter.getLimit());
+
+        long secondStarted = System.nanoTime();
+        assertTrue(limiter.tryAcquire());
+        // Failed, but already running at the cut: no second decrease
+        limiter.release(System.nanoTime() - firstStarted, true);
+        assertEquals(90, limiter.getLimit());
+
+        TimeUnit.MILLISECONDS.sleep(THRESHOLD_MS * 2);
+        limiter.release(System.nanoTime() - secondStarted, false);
+        assertEquals(81, limiter.getLimit());
+    }
+
+    @Test
+    void fastRequestsNearTheLimitGrowItByOne() {
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter("test", 4, 1, 200, THRESHOLD_MS, BACKOFF_RATIO);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        assertFalse(limiter.tryAcquire());
+
+        limiter.release(0, false);
+
+        assertEquals(5, limiter.getLimit());
+        assertEquals(1, limiter.getRejected());
+    }
+}